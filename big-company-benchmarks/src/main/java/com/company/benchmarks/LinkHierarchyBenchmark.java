@@ -0,0 +1,53 @@
+package com.company.benchmarks;
+
+import com.company.exceptions.ValidationException;
+import com.company.metrics.LoadMetrics;
+import com.company.metrics.MetricsListener;
+import com.company.metrics.Phase;
+import com.company.service.EmployeeServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times {@code linkHierarchy} (manager resolution, subordinate lists, depth pass) through the
+ * public API. Each operation is a full {@code loadFromFile} over the in-memory CSV; the link
+ * phase alone is taken from the service's {@link LoadMetrics} and reported as the
+ * {@code linkNanos} counter, summed over {@code loads} operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkHierarchyBenchmark {
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LinkTime implements MetricsListener {
+        public long linkNanos;
+        public long loads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            linkNanos = 0;
+            loads = 0;
+        }
+
+        @Override
+        public void onLoad(LoadMetrics metrics) {
+            linkNanos += metrics.phaseNanos().getOrDefault(Phase.LINK, 0L);
+            loads++;
+        }
+    }
+
+    @Benchmark
+    public EmployeeServiceImpl linkHierarchy(OrgShape shape, LinkTime time) throws IOException, ValidationException {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.setMetricsListener(time);
+        svc.loadFromFile(new StringReader(shape.csv));
+        return svc;
+    }
+}
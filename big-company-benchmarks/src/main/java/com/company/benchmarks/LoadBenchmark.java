@@ -0,0 +1,33 @@
+package com.company.benchmarks;
+
+import com.company.exceptions.ValidationException;
+import com.company.service.ColumnarEmployeeService;
+import com.company.service.EmployeeServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/** Full CSV load (parse, validate rows, link hierarchy) for both service implementations. */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+
+    @Benchmark
+    public EmployeeServiceImpl loadFromFile(OrgShape shape) throws IOException, ValidationException {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(shape.csv));
+        return svc;
+    }
+
+    @Benchmark
+    public ColumnarEmployeeService loadColumnar(OrgShape shape) throws IOException, ValidationException {
+        ColumnarEmployeeService svc = new ColumnarEmployeeService();
+        svc.loadFromFile(new StringReader(shape.csv));
+        return svc;
+    }
+}
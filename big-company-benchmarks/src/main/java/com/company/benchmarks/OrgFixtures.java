@@ -0,0 +1,31 @@
+package com.company.benchmarks;
+
+import com.company.tools.OrgGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * Deterministic synthetic org charts for benchmarks, produced by {@link OrgGenerator}.
+ *
+ * Each manager takes reports drawn from the {@code fanOut} distribution (an {@link OrgGenerator}
+ * spec such as {@code fixed:2}) breadth-first, nobody deeper than {@code maxDepth} gets reports,
+ * and rows are shuffled so managers do not always precede their reports.
+ */
+public final class OrgFixtures {
+
+    private OrgFixtures() {}
+
+    public static String csv(int size, String fanOut, int maxDepth) {
+        OrgGenerator.Options options = OrgGenerator.Options.parse("--rows", String.valueOf(size),
+                "--fan-out", fanOut, "--max-depth", String.valueOf(maxDepth), "--shuffle", "--seed", "42");
+        StringWriter out = new StringWriter(size * 40);
+        try {
+            new OrgGenerator(options).generate(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toString();
+    }
+}
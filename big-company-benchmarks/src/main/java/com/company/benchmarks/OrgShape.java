@@ -0,0 +1,44 @@
+package com.company.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Benchmark parameters shared by all benchmarks: org size and shape. */
+@State(Scope.Benchmark)
+public class OrgShape {
+
+    /** Named fan-out and depth cap combinations, each with a different depth profile. */
+    public enum Shape {
+        /** 16 reports per manager and at most 6 levels: shallow and wide. */
+        WIDE("fixed:16", 6),
+        /** Binary tree, about log2(orgSize) levels deep. */
+        BINARY("fixed:2", 10_000),
+        /** Mostly one report per manager (geometric, mean 1.05): a few hundred levels of long chains. */
+        CHAINS("geometric:1.05", 10_000),
+        /** One reporting chain of up to 10000 managers; larger orgs hang the rest off it round-robin. */
+        CHAIN("fixed:1", 10_000);
+
+        final String fanOut;
+        final int maxDepth;
+
+        Shape(String fanOut, int maxDepth) {
+            this.fanOut = fanOut;
+            this.maxDepth = maxDepth;
+        }
+    }
+
+    @Param({"10000", "200000"})
+    public int orgSize;
+
+    @Param
+    public Shape shape;
+
+    public String csv;
+
+    @Setup
+    public void generate() {
+        csv = OrgFixtures.csv(orgSize, shape.fanOut, shape.maxDepth);
+    }
+}
@@ -0,0 +1,50 @@
+package com.company.benchmarks;
+
+import com.company.model.Employee;
+import com.company.service.EmployeeServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation hot paths on a loaded org. The streaming scans are used so every invocation
+ * re-evaluates the whole org instead of reading the service's live violation state.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private EmployeeServiceImpl svc;
+    private List<Employee> employees;
+
+    @Setup
+    public void load(OrgShape shape) throws Exception {
+        svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(shape.csv));
+        employees = svc.getEmployees();
+    }
+
+    @Benchmark
+    public void validateSalaries(Blackhole bh) {
+        svc.forEachSalaryViolation(bh::consume);
+    }
+
+    @Benchmark
+    public void validateReportingLines(Blackhole bh) {
+        svc.forEachReportingLineViolation(4, bh::consume);
+    }
+
+    @Benchmark
+    public long countManagersBetween() {
+        long total = 0;
+        for (Employee e : employees) total += svc.countManagersBetween(e);
+        return total;
+    }
+}
@@ -1,13 +1,23 @@
 package com.company;
 
+import com.company.batch.BatchRunner;
+import com.company.model.Employee;
+import com.company.model.HierarchyDiff;
+import com.company.model.LoadReport;
+import com.company.report.ReportWriter;
+import com.company.report.ViolationRenderer;
+import com.company.server.OrgServer;
 import com.company.service.EmployeeService;
 import com.company.service.EmployeeServiceImpl;
+import com.company.service.HierarchyDiffer;
 
 import java.io.FileNotFoundException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Scanner;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -16,7 +26,29 @@ public class Main {
 
     private static final Logger LOG = Logger.getLogger(Main.class.getName());
 
+    private static final String SERVE_USAGE =
+            "Usage: Main --serve <employees.csv> [--port 8080] [--bind 127.0.0.1] [--threads N] [--limit 4] [--watch] [--snapshot file]";
+    private static final String DIFF_USAGE = "Usage: Main --diff <before.csv> <after.csv> [--limit 4]";
+    private static final String CHECK_USAGE = "Usage: Main --check <employees.csv> [--max-errors 1000]";
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            int status = BatchRunner.cli(Arrays.copyOfRange(args, 1, args.length), System.out);
+            if (status != 0) System.exit(status);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--diff")) {
+            diff(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--check")) {
+            check(args);
+            return;
+        }
 
         Scanner scanner = new Scanner(System.in);
 
@@ -38,35 +70,129 @@ public class Main {
             EmployeeService employeeService = new EmployeeServiceImpl();
             employeeService.loadEmployees(csv);
 
-            System.out.println("\n=== Salary Violations ===");
+            // violations stream straight to the console; counts follow in the summary
+            try (ReportWriter report = ReportWriter.toStream(System.out, ReportWriter.Format.TEXT,
+                    employeeService::getById)) {
+                report.section("Salary Violations");
+                employeeService.forEachSalaryViolation(report);
 
-            Map<String, List<String>> salaryMap = employeeService.validateSalaries();
+                report.section("Reporting Line Issues");
+                employeeService.forEachReportingLineViolation(4, report);
+            }
 
-            List<String> underpaid = salaryMap.get("underpaid");
-            List<String> overpaid = salaryMap.get("overpaid");
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, "Error: " + ex.getMessage(), ex);
+            System.err.println("Failure: " + ex.getMessage());
+        }
+    }
 
-            System.out.println("UNDERPAID employees: " + underpaid.size());
-            if (underpaid.isEmpty()) {
-                System.out.println("No employees are underpaid.");
-            } else {
-                underpaid.forEach(System.out::println);
+    /** Keeps the org in memory and answers queries over HTTP until the process is stopped. */
+    private static void serve(String[] args) {
+        if (args.length < 2) {
+            System.err.println(SERVE_USAGE);
+            return;
+        }
+        Path csv = Paths.get(args[1]);
+        int port = 8080;
+        InetAddress bind = InetAddress.getLoopbackAddress();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int limit = 4;
+        boolean watch = false;
+        Path snapshotFile = null;
+        try {
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(value(args, ++i));
+                    case "--bind" -> bind = InetAddress.getByName(value(args, ++i));
+                    case "--threads" -> threads = Integer.parseInt(value(args, ++i));
+                    case "--limit" -> limit = Integer.parseInt(value(args, ++i));
+                    case "--watch" -> watch = true;
+                    case "--snapshot" -> snapshotFile = Paths.get(value(args, ++i));
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
             }
 
-            System.out.println("\nOVERPAID employees: " + overpaid.size());
-            if (overpaid.isEmpty()) {
-                System.out.println("No employees are overpaid.");
-            } else {
-                overpaid.forEach(System.out::println);
-            }
+            OrgServer server = new OrgServer(csv, snapshotFile, new InetSocketAddress(bind, port), threads, limit);
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            if (watch) server.watch(Duration.ofMillis(500));
+            server.start();
+            System.out.println("Serving " + server.snapshot().size() + " employees on http://"
+                    + server.address().getHostString() + ":" + server.port());
+            Thread.currentThread().join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(SERVE_USAGE);
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, "Error: " + ex.getMessage(), ex);
+            System.err.println("Failure: " + ex.getMessage());
+        }
+    }
 
-            System.out.println("\n=== Reporting Line Issues ===");
-            List<String> longLines = employeeService.validateReportingLines(4);
-            if (longLines.isEmpty()) System.out.println("None");
-            else longLines.forEach(System.out::println);
+    /** Prints what changed between two org files, e.g. last month's and this month's. */
+    private static void diff(String[] args) {
+        try {
+            if (args.length < 3) throw new IllegalArgumentException("Missing input files");
+            int limit = 4;
+            for (int i = 3; i < args.length; i++) {
+                if (!args[i].equals("--limit")) throw new IllegalArgumentException("Unknown option: " + args[i]);
+                limit = Integer.parseInt(value(args, ++i));
+            }
+            EmployeeServiceImpl before = new EmployeeServiceImpl();
+            before.loadEmployees(Paths.get(args[1]));
+            EmployeeServiceImpl after = new EmployeeServiceImpl();
+            after.loadEmployees(Paths.get(args[2]));
+
+            HierarchyDiff diff = HierarchyDiffer.diff(before, after, limit);
+            for (Employee e : diff.hires()) System.out.println("HIRED " + e.getId() + " " + e.getFullName());
+            for (Employee e : diff.leavers()) System.out.println("LEFT " + e.getId() + " " + e.getFullName());
+            for (HierarchyDiff.SalaryChange c : diff.salaryChanges()) {
+                System.out.println("SALARY " + c.employeeId() + " " + c.before() + " -> " + c.after());
+            }
+            for (HierarchyDiff.ManagerMove m : diff.moves()) {
+                System.out.println("MOVED " + m.employeeId() + " " + m.fromManagerId() + " -> " + m.toManagerId());
+            }
+            ViolationRenderer newRenderer = new ViolationRenderer(after::getById);
+            diff.newViolations().forEach(v -> System.out.println("NEW " + newRenderer.render(v)));
+            ViolationRenderer oldRenderer = new ViolationRenderer(before::getById);
+            diff.resolvedViolations().forEach(v -> System.out.println("RESOLVED " + oldRenderer.render(v)));
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(DIFF_USAGE);
+        } catch (Exception ex) {
+            LOG.log(Level.SEVERE, "Error: " + ex.getMessage(), ex);
+            System.err.println("Failure: " + ex.getMessage());
+        }
+    }
 
+    /** Lists every problem in a file in one pass, so a broken export can be fixed without reloading per error. */
+    private static void check(String[] args) {
+        try {
+            if (args.length < 2) throw new IllegalArgumentException("Missing input file");
+            int maxErrors = 1000;
+            for (int i = 2; i < args.length; i++) {
+                if (!args[i].equals("--max-errors")) throw new IllegalArgumentException("Unknown option: " + args[i]);
+                maxErrors = Integer.parseInt(value(args, ++i));
+            }
+            LoadReport report = EmployeeServiceImpl.diagnose(Paths.get(args[1]), maxErrors);
+            for (LoadReport.Problem p : report.problems()) {
+                System.out.println(p.kind() + " line " + p.line() + ": " + p.message());
+            }
+            System.out.println(report.rows() + " rows, " + report.totalProblems() + " problems"
+                    + (report.truncated() ? " (first " + report.problems().size() + " listed)" : ""));
+            report.counts().forEach((kind, count) -> System.out.println("  " + kind + ": " + count));
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(CHECK_USAGE);
         } catch (Exception ex) {
             LOG.log(Level.SEVERE, "Error: " + ex.getMessage(), ex);
             System.err.println("Failure: " + ex.getMessage());
         }
     }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
 }
@@ -0,0 +1,323 @@
+package com.company.batch;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Violation;
+import com.company.report.Csv;
+import com.company.report.ReportWriter;
+import com.company.service.CsvInput;
+import com.company.service.EmployeeServiceImpl;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Validates many CSV files in one run, each with its own {@link EmployeeServiceImpl}.
+ *
+ * Inputs may be files, directories (their {@code *.csv} files) or glob patterns such as
+ * {@code data/*.csv}. Files are processed concurrently on a fixed pool of worker
+ * threads. A memory budget bounds how much is loaded at once: each file reserves an estimate
+ * of its heap footprint ({@link #HEAP_PER_CSV_BYTE} times its uncompressed size, see
+ * {@link CsvInput#contentSize}) before loading and waits while the budget is used up. A file
+ * bigger than the whole budget runs on its own.
+ *
+ * With a snapshot directory, each input also keeps a binary warm-start snapshot there, named
+ * after its report, and a file that has not changed since the last run is restored from it
+ * instead of being parsed and validated again.
+ *
+ * Every file gets its own report in the output directory. Failures such as
+ * {@link ValidationException}s are recorded and do not stop the batch. When everything is done,
+ * {@code summary.csv} lists one line per file and the totals are printed. {@link #cli} returns a
+ * non-zero status when any file failed, so scheduled jobs can detect it.
+ */
+public class BatchRunner {
+
+    /** Rough heap bytes an {@code EmployeeServiceImpl} needs per byte of CSV. */
+    static final int HEAP_PER_CSV_BYTE = 8;
+
+    private static final String USAGE = """
+            Usage: Main --batch <file|dir|glob>... [options]
+              --out <dir>              report directory (default batch-reports)
+              --limit <n>              reporting line limit (default 4)
+              --format <fmt>           text | csv | ndjson (default text)
+              --threads <n>            files validated at once (default: processors)
+              --memory-budget <size>   heap reserved for loaded files, e.g. 512m or 4g (default: half of max heap)
+              --snapshot-dir <dir>     keep a warm-start snapshot per input there; unchanged files skip parsing
+            """;
+
+    public record Options(List<String> inputs, Path outDir, int limit, ReportWriter.Format format,
+                          int threads, long memoryBudget, Path snapshotDir) {
+
+        public static Options parse(String... args) {
+            List<String> inputs = new ArrayList<>();
+            Path outDir = Paths.get("batch-reports");
+            int limit = 4;
+            ReportWriter.Format format = ReportWriter.Format.TEXT;
+            int threads = Runtime.getRuntime().availableProcessors();
+            long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+            Path snapshotDir = null;
+
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    inputs.add(arg);
+                    continue;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+                String value = args[++i];
+                try {
+                    switch (arg) {
+                        case "--out" -> outDir = Paths.get(value);
+                        case "--limit" -> limit = Integer.parseInt(value);
+                        case "--format" -> format = ReportWriter.Format.parse(value);
+                        case "--threads" -> threads = Integer.parseInt(value);
+                        case "--memory-budget" -> memoryBudget = parseSize(value);
+                        case "--snapshot-dir" -> snapshotDir = Paths.get(value);
+                        default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid value for " + arg + ": " + value);
+                }
+            }
+            if (inputs.isEmpty()) throw new IllegalArgumentException("No input files given");
+            if (threads < 1) throw new IllegalArgumentException("--threads must be at least 1");
+            if (memoryBudget < 1) throw new IllegalArgumentException("--memory-budget must be positive");
+            return new Options(inputs, outDir, limit, format, threads, memoryBudget, snapshotDir);
+        }
+
+        private static long parseSize(String value) {
+            String v = value.trim().toLowerCase(Locale.ROOT);
+            long unit = switch (v.isEmpty() ? ' ' : v.charAt(v.length() - 1)) {
+                case 'k' -> 1L << 10;
+                case 'm' -> 1L << 20;
+                case 'g' -> 1L << 30;
+                default -> 1;
+            };
+            return Long.parseLong(unit == 1 ? v : v.substring(0, v.length() - 1)) * unit;
+        }
+    }
+
+    /** Outcome for one input file; {@code error} is null when it validated. */
+    public record FileResult(Path file, Path report, long employees, long underpaid, long overpaid,
+                             long longLines, long millis, String error) {
+
+        public boolean ok() { return error == null; }
+    }
+
+    private final Options options;
+
+    public BatchRunner(Options options) {
+        this.options = options;
+    }
+
+    /**
+     * Entry point for {@code Main --batch}; prints usage on bad arguments. Returns the process exit
+     * status: 0 when every file validated, 1 when any file failed, 2 when the batch could not run.
+     */
+    public static int cli(String[] args, PrintStream out) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+        try {
+            List<FileResult> results = new BatchRunner(options).run();
+            printSummary(results, out);
+            return results.stream().allMatch(FileResult::ok) ? 0 : 1;
+        } catch (IOException | UncheckedIOException ex) {
+            System.err.println("Failure: " + ex.getMessage());
+            return 2;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 2;
+        }
+    }
+
+    public List<FileResult> run() throws IOException, InterruptedException {
+        List<Path> files = resolveInputs(options.inputs());
+        Files.createDirectories(options.outDir());
+        if (options.snapshotDir() != null) Files.createDirectories(options.snapshotDir());
+
+        // budget is tracked in KiB so it fits a semaphore's int permits
+        int budgetKib = (int) Math.min(Integer.MAX_VALUE, Math.max(1, options.memoryBudget() >> 10));
+        Semaphore budget = new Semaphore(budgetKib, true);
+        List<Path> reports = reportPaths(files);
+
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(options.threads(), r -> {
+            Thread t = new Thread(r, "batch-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                Path file = files.get(i);
+                Path report = reports.get(i);
+                futures.add(workers.submit(() -> {
+                    int permits = (int) Math.min(budgetKib, Math.max(1, heapEstimate(file) >> 10));
+                    budget.acquire(permits);
+                    try {
+                        return validate(file, report);
+                    } finally {
+                        budget.release(permits);
+                    }
+                }));
+            }
+
+            List<FileResult> results = new ArrayList<>(files.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException ex) {
+                    results.add(new FileResult(files.get(i), null, 0, 0, 0, 0, 0,
+                            String.valueOf(ex.getCause().getMessage())));
+                }
+            }
+            writeSummary(results);
+            return results;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /** Heap bytes reserved for loading {@code file}, from its uncompressed size. */
+    static long heapEstimate(Path file) throws IOException {
+        return CsvInput.contentSize(file) * HEAP_PER_CSV_BYTE;
+    }
+
+    private FileResult validate(Path file, Path report) {
+        long start = System.nanoTime();
+        try {
+            EmployeeServiceImpl service = new EmployeeServiceImpl();
+            if (options.snapshotDir() == null) {
+                service.loadEmployees(file);
+            } else {
+                String name = report.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+                service.loadEmployees(file, options.snapshotDir().resolve(name + ".snapshot"));
+            }
+            try (ReportWriter writer = ReportWriter.toFile(report, options.format(), service::getById)) {
+                writer.section("Salary Violations");
+                service.forEachSalaryViolation(writer);
+                writer.section("Reporting Line Issues");
+                service.forEachReportingLineViolation(options.limit(), writer);
+                return new FileResult(file, report, service.getAll().size(),
+                        writer.count(Violation.Kind.UNDERPAID), writer.count(Violation.Kind.OVERPAID),
+                        writer.count(Violation.Kind.LONG_REPORTING_LINE), elapsedMillis(start), null);
+            }
+        } catch (ValidationException | IOException | UncheckedIOException ex) {
+            return new FileResult(file, null, 0, 0, 0, 0, elapsedMillis(start), ex.getMessage());
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /** Expands directories and globs into a de-duplicated, sorted-per-input list of files. */
+    static List<Path> resolveInputs(List<String> inputs) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String input : inputs) {
+            if (input.chars().anyMatch(c -> "*?[{".indexOf(c) >= 0)) {
+                files.addAll(glob(input));
+                continue;
+            }
+            Path path = Paths.get(input);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> children = Files.list(path)) {
+                    children.filter(p -> Files.isRegularFile(p)
+                                    && p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv"))
+                            .sorted()
+                            .forEach(files::add);
+                }
+            } else if (Files.isRegularFile(path)) {
+                files.add(path);
+            } else {
+                throw new IOException("No such file or directory: " + input);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static List<Path> glob(String pattern) throws IOException {
+        // walk from the longest directory prefix without wildcards
+        String[] parts = pattern.replace('\\', '/').split("/");
+        StringBuilder base = new StringBuilder();
+        int firstWild = 0;
+        while (firstWild < parts.length - 1 && parts[firstWild].chars().noneMatch(c -> "*?[{".indexOf(c) >= 0)) {
+            base.append(parts[firstWild]).append('/');
+            firstWild++;
+        }
+        Path root = Paths.get(base.length() == 0 ? "." : base.toString());
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:"
+                + String.join("/", List.of(parts).subList(firstWild, parts.length)));
+        if (!Files.isDirectory(root)) return List.of();
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(p -> matcher.matches(root.relativize(p)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /** One report per input, named after it; clashing names get a numeric suffix. */
+    private List<Path> reportPaths(List<Path> files) {
+        String extension = "." + options.format().name().toLowerCase(Locale.ROOT).replace("text", "txt");
+        Set<String> used = new HashSet<>();
+        used.add("summary.csv");
+        List<Path> reports = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String stem = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+            String name = stem + extension;
+            for (int k = 2; !used.add(name); k++) name = stem + "-" + k + extension;
+            reports.add(options.outDir().resolve(name));
+        }
+        return reports;
+    }
+
+    private void writeSummary(List<FileResult> results) throws IOException {
+        try (Writer w = Files.newBufferedWriter(options.outDir().resolve("summary.csv"))) {
+            w.write("file,status,employees,underpaid,overpaid,longReportingLines,millis,error\n");
+            for (FileResult r : results) {
+                w.write(Csv.field(r.file().toString()) + "," + (r.ok() ? "OK" : "FAILED") + "," + r.employees() + ","
+                        + r.underpaid() + "," + r.overpaid() + "," + r.longLines() + "," + r.millis() + ","
+                        + (r.ok() ? "" : Csv.field(r.error())) + "\n");
+            }
+        }
+    }
+
+    static void printSummary(List<FileResult> results, PrintStream out) {
+        long failed = results.stream().filter(r -> !r.ok()).count();
+        out.printf("Processed %d files (%d failed): %d employees, %d underpaid, %d overpaid, %d long reporting lines%n",
+                results.size(), failed,
+                results.stream().mapToLong(FileResult::employees).sum(),
+                results.stream().mapToLong(FileResult::underpaid).sum(),
+                results.stream().mapToLong(FileResult::overpaid).sum(),
+                results.stream().mapToLong(FileResult::longLines).sum());
+        for (FileResult r : results) {
+            if (!r.ok()) out.println("FAILED " + r.file() + ": " + r.error());
+        }
+    }
+}
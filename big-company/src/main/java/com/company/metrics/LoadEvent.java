@@ -0,0 +1,34 @@
+package com.company.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event spanning one complete load. */
+@Name("com.company.EmployeeLoad")
+@Label("Employee Load")
+@Category("Big Company")
+@Description("Loading and linking an employee hierarchy")
+public final class LoadEvent extends Event {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytes;
+
+    @Label("Allocated")
+    @Description("Bytes allocated by the loading thread, -1 if unknown")
+    @DataAmount
+    public long allocated;
+
+    @Label("Rows per Second")
+    public double rowsPerSecond;
+}
@@ -0,0 +1,18 @@
+package com.company.metrics;
+
+import java.util.Map;
+
+/**
+ * Summary of one load.
+ *
+ * {@code phaseNanos} holds the time spent in each {@link Phase} that was measured; phases of a
+ * streaming load interleave row by row, so they add up to roughly {@code totalNanos}.
+ * {@code allocatedBytes} is what the loading thread allocated, or -1 when the JVM cannot tell.
+ */
+public record LoadMetrics(String source, long rows, long bytes, long allocatedBytes,
+                          Map<Phase, Long> phaseNanos, long totalNanos) {
+
+    public double rowsPerSecond() {
+        return totalNanos == 0 ? 0 : rows * 1e9 / totalNanos;
+    }
+}
@@ -0,0 +1,29 @@
+package com.company.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event with the total time of one {@link Phase} of a load. Read, parse and row validation
+ * interleave row by row, so their time is accumulated and committed once when the load ends.
+ */
+@Name("com.company.EmployeeLoadPhase")
+@Label("Employee Load Phase")
+@Category("Big Company")
+@Description("Accumulated time of one load phase")
+public final class LoadPhaseEvent extends Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Elapsed")
+    @Timespan
+    public long elapsed;
+
+    @Label("Rows")
+    public long rows;
+}
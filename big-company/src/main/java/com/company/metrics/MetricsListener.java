@@ -0,0 +1,17 @@
+package com.company.metrics;
+
+/**
+ * Receives load and validation metrics from a service. Callbacks run on the thread that did
+ * the work, right after it finished, so implementations should be quick.
+ *
+ * Per-row phase timing is only switched on when a listener other than {@link #NONE} is set,
+ * the service logger is at {@code FINE}, or a JFR recording has the phase event enabled.
+ */
+public interface MetricsListener {
+
+    MetricsListener NONE = new MetricsListener() {};
+
+    default void onLoad(LoadMetrics metrics) {}
+
+    default void onValidation(ValidationMetrics metrics) {}
+}
@@ -0,0 +1,15 @@
+package com.company.metrics;
+
+/** Instrumented stages of loading and validating a hierarchy. */
+public enum Phase {
+    /** Reading raw lines (or snapshot bytes) from the source. */
+    READ,
+    /** Tokenizing a row and converting its fields. */
+    PARSE,
+    /** Per-row checks against what was already loaded (duplicate ids) and registering the row. */
+    VALIDATE_ROW,
+    /** Wiring managers to reports, computing depths and rejecting cycles. */
+    LINK,
+    SALARY_VALIDATION,
+    REPORTING_LINE_VALIDATION
+}
@@ -0,0 +1,21 @@
+package com.company.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** JFR event spanning one full salary or reporting-line scan. */
+@Name("com.company.EmployeeValidation")
+@Label("Employee Validation")
+@Category("Big Company")
+@Description("One full validation scan over the hierarchy")
+public final class ValidationEvent extends Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Violations")
+    public long violations;
+}
@@ -0,0 +1,4 @@
+package com.company.metrics;
+
+/** One full validation scan: which one, how many violations it found and how long it took. */
+public record ValidationMetrics(Phase phase, long violations, long nanos) {}
@@ -1,6 +1,7 @@
 package com.company.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Employee {
@@ -28,11 +29,13 @@ public class Employee {
     public String getLastName() { return lastName; }
     public String getFullName() { return firstName + " " + lastName; }
 
+    /** Direct reports, read-only. */
     public List<Employee> getSubordinates() {
-        return subordinates;
+        return Collections.unmodifiableList(subordinates);
     }
 
-    public void addSubordinate(Employee e) {
+    /** Links {@code e} as a direct report; for the service building the hierarchy only. */
+    protected void addSubordinate(Employee e) {
         subordinates.add(e);
     }
 }
@@ -0,0 +1,26 @@
+package com.company.model;
+
+import java.util.List;
+
+/**
+ * What changed between two loads of the hierarchy, as produced by
+ * {@code HierarchyDiffer.diff(before, after, limit)}.
+ *
+ * Hires, salary changes and moves are listed in the new hierarchy's top-down order, leavers in the
+ * old one's. A violation is new or resolved when its employee and kind appear on only one side;
+ * one whose threshold or delta merely shifted is in neither list.
+ */
+public record HierarchyDiff(List<Employee> hires, List<Employee> leavers, List<SalaryChange> salaryChanges,
+                            List<ManagerMove> moves, List<Violation> newViolations,
+                            List<Violation> resolvedViolations) {
+
+    public record SalaryChange(String employeeId, double before, double after) {}
+
+    /** {@code fromManagerId} is the manager in the old hierarchy, {@code toManagerId} in the new one. */
+    public record ManagerMove(String employeeId, String fromManagerId, String toManagerId) {}
+
+    public boolean isEmpty() {
+        return hires.isEmpty() && leavers.isEmpty() && salaryChanges.isEmpty() && moves.isEmpty()
+                && newViolations.isEmpty() && resolvedViolations.isEmpty();
+    }
+}
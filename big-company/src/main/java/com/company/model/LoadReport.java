@@ -0,0 +1,37 @@
+package com.company.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything wrong with an employee file, from a fail-slow diagnostic load that keeps going past
+ * the first error. {@code problems} holds at most the requested number of entries in the order
+ * found: row errors and duplicates in file order, then hierarchy errors. {@code counts} covers
+ * every problem, including those past the cap.
+ *
+ * Line numbers count data rows from 1 (the header is line 0), blank lines included, as in load
+ * errors. Problems not tied to one row ({@link Kind#NO_CEO}) have line 0.
+ */
+public record LoadReport(long rows, List<Problem> problems, Map<Kind, Long> counts) {
+
+    public enum Kind {
+        MALFORMED_ROW, EMPTY_ID, DUPLICATE_ID, INVALID_SALARY, NEGATIVE_SALARY,
+        UNKNOWN_MANAGER, MULTIPLE_CEOS, NO_CEO, CYCLE
+    }
+
+    /** {@code employeeId} is null when the row has none (malformed rows, empty ids, no CEO). */
+    public record Problem(Kind kind, int line, String employeeId, String message) {}
+
+    public long totalProblems() {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public boolean isValid() {
+        return totalProblems() == 0;
+    }
+
+    /** True when more problems were found than {@link #problems()} holds. */
+    public boolean truncated() {
+        return totalProblems() > problems.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.company.model;
+
+/**
+ * Salary distribution over an employee's reporting subtree, the employee included.
+ * Quantiles are nearest-rank and approximate for large subtrees (see
+ * {@code EmployeeServiceImpl.getSalaryDistribution}); headcount, min and max are exact.
+ *
+ * Outliers use Tukey's fences: more than 1.5 interquartile ranges outside {@code [p25, p75]}.
+ */
+public record SalaryDistribution(int headcount, double min, double p25, double median,
+                                 double p75, double p90, double p99, double max) {
+
+    public double lowerFence() {
+        return p25 - 1.5 * (p75 - p25);
+    }
+
+    public double upperFence() {
+        return p75 + 1.5 * (p75 - p25);
+    }
+
+    public boolean isOutlier(double salary) {
+        return salary < lowerFence() || salary > upperFence();
+    }
+}
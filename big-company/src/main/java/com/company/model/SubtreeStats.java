@@ -0,0 +1,12 @@
+package com.company.model;
+
+/**
+ * Aggregates over everyone in an employee's reporting subtree, the employee included.
+ * An individual contributor's stats cover just themselves.
+ */
+public record SubtreeStats(int headcount, double payroll, double minSalary, double maxSalary) {
+
+    public double averageSalary() {
+        return payroll / headcount;
+    }
+}
@@ -0,0 +1,13 @@
+package com.company.model;
+
+/**
+ * One rule violation, kept as plain numbers so callers never have to parse text.
+ *
+ * - {@code UNDERPAID}: threshold is the minimum allowed salary, delta the shortfall.
+ * - {@code OVERPAID}: threshold is the maximum allowed salary, delta the excess.
+ * - {@code LONG_REPORTING_LINE}: threshold is the managers-between limit, delta how many managers too many.
+ */
+public record Violation(String employeeId, Kind kind, double threshold, double delta) {
+
+    public enum Kind { UNDERPAID, OVERPAID, LONG_REPORTING_LINE }
+}
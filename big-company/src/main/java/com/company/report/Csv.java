@@ -0,0 +1,16 @@
+package com.company.report;
+
+/** CSV field quoting shared by the CSV report and the batch summary. */
+public final class Csv {
+
+    private Csv() {}
+
+    /** {@code value} as a CSV field: empty for null, quoted when it holds a separator, quote or line break. */
+    public static String field(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
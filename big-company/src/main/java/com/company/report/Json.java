@@ -0,0 +1,33 @@
+package com.company.report;
+
+/** Minimal JSON string and number encoding shared by the NDJSON report and the HTTP query service. */
+public final class Json {
+
+    private Json() {}
+
+    /** {@code value} as a quoted JSON string, or {@code null} for a null value. */
+    public static String quote(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /** {@code value} as a JSON number; NaN and infinities, which JSON cannot express, become {@code null}. */
+    public static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+}
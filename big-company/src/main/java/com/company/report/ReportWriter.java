@@ -0,0 +1,139 @@
+package com.company.report;
+
+import com.company.model.Employee;
+import com.company.model.Violation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Report sink that writes each {@link Violation} through a buffered channel the moment it is
+ * handed over, so memory stays bounded no matter how many violations a run produces.
+ * Only the per-kind counts are kept; in {@link Format#TEXT} they are written as a summary on close,
+ * salary lines are prefixed with their kind, and a section that stays empty reads "None".
+ *
+ * Pass it straight to {@code EmployeeService.forEachSalaryViolation} /
+ * {@code forEachReportingLineViolation}. Write failures surface as {@link UncheckedIOException}.
+ * Non-finite amounts (a "NaN" or "Infinity" salary in the input) are written as {@code null} in
+ * NDJSON, and CSV fields are quoted whenever they contain a separator, quote or line break.
+ */
+public class ReportWriter implements Consumer<Violation>, Closeable {
+
+    public enum Format {
+        CSV, NDJSON, TEXT;
+
+        public static Format parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer out;
+    private final Format format;
+    private final Function<String, Optional<Employee>> lookup;
+    private final ViolationRenderer renderer;
+    private final boolean ownsTarget;
+    private final long[] counts = new long[Violation.Kind.values().length];
+    private long sectionEntries = -1; // -1 = no text section open
+
+    private ReportWriter(WritableByteChannel channel, Format format,
+                         Function<String, Optional<Employee>> lookup, boolean ownsTarget) {
+        this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.format = format;
+        this.lookup = lookup;
+        this.renderer = new ViolationRenderer(lookup);
+        this.ownsTarget = ownsTarget;
+        if (format == Format.CSV) write("employeeId,name,kind,threshold,delta\n");
+    }
+
+    /** Writes to {@code file}, replacing it; closing the writer closes the file. */
+    public static ReportWriter toFile(Path file, Format format, Function<String, Optional<Employee>> lookup)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new ReportWriter(channel, format, lookup, true);
+    }
+
+    /** Writes to {@code stream}; closing the writer only flushes, the stream stays open. */
+    public static ReportWriter toStream(OutputStream stream, Format format,
+                                        Function<String, Optional<Employee>> lookup) {
+        return new ReportWriter(Channels.newChannel(stream), format, lookup, false);
+    }
+
+    @Override
+    public void accept(Violation v) {
+        counts[v.kind().ordinal()]++;
+        switch (format) {
+            case TEXT -> {
+                String line = renderer.render(v);
+                write(v.kind() == Violation.Kind.LONG_REPORTING_LINE ? line + "\n" : v.kind() + ": " + line + "\n");
+                if (sectionEntries >= 0) sectionEntries++;
+            }
+            case CSV -> write(Csv.field(v.employeeId()) + "," + Csv.field(name(v)) + "," + v.kind() + ","
+                    + v.threshold() + "," + v.delta() + "\n");
+            case NDJSON -> write("{\"employeeId\":" + Json.quote(v.employeeId()) + ",\"name\":" + Json.quote(name(v))
+                    + ",\"kind\":\"" + v.kind() + "\",\"threshold\":" + Json.number(v.threshold())
+                    + ",\"delta\":" + Json.number(v.delta()) + "}\n");
+        }
+    }
+
+    /** Starts a titled section in text reports; structured formats ignore it. */
+    public void section(String title) {
+        if (format != Format.TEXT) return;
+        endSection();
+        write("\n=== " + title + " ===\n");
+        sectionEntries = 0;
+    }
+
+    private void endSection() {
+        if (sectionEntries == 0) write("None\n");
+        sectionEntries = -1;
+    }
+
+    public long count(Violation.Kind kind) {
+        return counts[kind.ordinal()];
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (format == Format.TEXT) {
+                endSection();
+                section("Summary");
+                write("UNDERPAID employees: " + count(Violation.Kind.UNDERPAID) + "\n");
+                write("OVERPAID employees: " + count(Violation.Kind.OVERPAID) + "\n");
+                write("LONG reporting lines: " + count(Violation.Kind.LONG_REPORTING_LINE) + "\n");
+            }
+        } finally {
+            if (ownsTarget) out.close();
+            else out.flush();
+        }
+    }
+
+    private String name(Violation v) {
+        return lookup.apply(v.employeeId()).map(Employee::getFullName).orElse("");
+    }
+
+    private void write(String s) {
+        try {
+            out.write(s);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.company.report;
+
+import com.company.model.Employee;
+import com.company.model.Violation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Turns {@link Violation}s into the human-readable lines printed by {@code Main}.
+ * Formatting happens only here, on demand, so services never pay for it.
+ */
+public class ViolationRenderer {
+
+    private final Function<String, Optional<Employee>> lookup;
+
+    /** @param lookup resolves employee ids to names, e.g. {@code employeeService::getById} */
+    public ViolationRenderer(Function<String, Optional<Employee>> lookup) {
+        this.lookup = lookup;
+    }
+
+    public String render(Violation v) {
+        String name = lookup.apply(v.employeeId()).map(Employee::getFullName).orElse("<unknown>");
+        return switch (v.kind()) {
+            case UNDERPAID -> String.format("%s (%s) is underpaid by %.2f", name, v.employeeId(), v.delta());
+            case OVERPAID -> String.format("%s (%s) is overpaid by %.2f", name, v.employeeId(), v.delta());
+            case LONG_REPORTING_LINE -> String.format("LONG: %s (%s) by %d", name, v.employeeId(), (long) v.delta());
+        };
+    }
+
+    public List<String> renderAll(List<Violation> violations) {
+        List<String> out = new ArrayList<>(violations.size());
+        for (Violation v : violations) out.add(render(v));
+        return out;
+    }
+
+    /** Legacy {@code "underpaid"} / {@code "overpaid"} map of rendered salary violations. */
+    public Map<String, List<String>> renderSalaryReport(List<Violation> violations) {
+        List<String> underpaid = new ArrayList<>();
+        List<String> overpaid = new ArrayList<>();
+        for (Violation v : violations) {
+            if (v.kind() == Violation.Kind.UNDERPAID) underpaid.add(render(v));
+            else if (v.kind() == Violation.Kind.OVERPAID) overpaid.add(render(v));
+        }
+        Map<String, List<String>> result = new HashMap<>();
+        result.put("underpaid", underpaid);
+        result.put("overpaid", overpaid);
+        return result;
+    }
+}
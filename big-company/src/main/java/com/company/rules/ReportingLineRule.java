@@ -0,0 +1,18 @@
+package com.company.rules;
+
+import com.company.model.Violation;
+
+/** At most {@code limit} managers may sit between an employee and the CEO. */
+public record ReportingLineRule(int limit) implements Rule {
+
+    public ReportingLineRule {
+        if (limit < 0) throw new IllegalArgumentException("Reporting line limit must be >= 0");
+    }
+
+    @Override
+    public Violation check(String id, double salary, double avgSubordinateSalary, int managersBetween) {
+        return managersBetween > limit
+                ? new Violation(id, Violation.Kind.LONG_REPORTING_LINE, limit, managersBetween - limit)
+                : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.company.rules;
+
+import com.company.model.Violation;
+
+/**
+ * One check applied to every employee during the shared {@link RuleEngine} traversal. The
+ * facts are computed once per employee and handed to every rule of every rule set.
+ */
+@FunctionalInterface
+public interface Rule {
+
+    /**
+     * @param avgSubordinateSalary average salary of the direct reports, {@code NaN} for non-managers
+     * @param managersBetween      managers between the employee and the CEO (0 for the CEO and direct reports)
+     * @return the violation, or null when the employee complies
+     */
+    Violation check(String id, double salary, double avgSubordinateSalary, int managersBetween);
+}
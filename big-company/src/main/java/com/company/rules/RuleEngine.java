@@ -0,0 +1,70 @@
+package com.company.rules;
+
+import com.company.model.Violation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates any number of {@link RuleSet}s in a single traversal: the per-employee facts
+ * (salary, average of the direct reports, managers between them and the CEO) are computed once
+ * and every rule of every set in scope is checked against them, so extra rule sets cost a few
+ * comparisons per employee instead of another pass.
+ */
+public final class RuleEngine {
+
+    /** The view of a hierarchy the engine needs; services adapt their own storage to it. */
+    public interface Hierarchy {
+
+        /** Visits every employee exactly once. */
+        void forEachEmployee(Visitor visitor);
+
+        /** Membership test for the subtree rooted at {@code rootId}, the root included. */
+        Predicate<String> subtree(String rootId);
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        /** {@code avgSubordinateSalary} is {@code NaN} for employees without direct reports. */
+        void visit(String id, double salary, double avgSubordinateSalary, int managersBetween);
+    }
+
+    private RuleEngine() {}
+
+    /**
+     * Violations per rule set name, in rule set order. Within a set they follow the traversal
+     * order, with an employee's findings in rule order.
+     */
+    public static Map<String, List<Violation>> evaluate(Hierarchy hierarchy, List<RuleSet> ruleSets) {
+        int n = ruleSets.size();
+        Rule[][] rules = new Rule[n][];
+        List<Predicate<String>> scopes = new ArrayList<>(n);
+        List<List<Violation>> found = new ArrayList<>(n);
+        Map<String, List<Violation>> result = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            RuleSet set = ruleSets.get(i);
+            rules[i] = set.rules().toArray(new Rule[0]);
+            scopes.add(set.scopeRootId() == null ? null : hierarchy.subtree(set.scopeRootId()));
+            found.add(new ArrayList<>());
+            if (result.putIfAbsent(set.name(), found.get(i)) != null) {
+                throw new IllegalArgumentException("Duplicate rule set name: " + set.name());
+            }
+        }
+
+        hierarchy.forEachEmployee((id, salary, avg, between) -> {
+            for (int i = 0; i < n; i++) {
+                Predicate<String> scope = scopes.get(i);
+                if (scope != null && !scope.test(id)) continue;
+                for (Rule rule : rules[i]) {
+                    Violation v = rule.check(id, salary, avg, between);
+                    if (v != null) found.get(i).add(v);
+                }
+            }
+        });
+
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.company.rules;
+
+import java.util.List;
+
+/**
+ * Named group of rules, optionally scoped to the subtree of one employee (for example a
+ * country or division head, who is included). A null {@code scopeRootId} covers everyone.
+ */
+public record RuleSet(String name, String scopeRootId, List<Rule> rules) {
+
+    public RuleSet {
+        rules = List.copyOf(rules);
+    }
+
+    public static RuleSet of(String name, Rule... rules) {
+        return new RuleSet(name, null, List.of(rules));
+    }
+
+    /** The same rules, applied only to {@code rootId} and everyone below them. */
+    public RuleSet within(String rootId) {
+        return new RuleSet(name, rootId, rules);
+    }
+}
@@ -0,0 +1,36 @@
+package com.company.rules;
+
+import com.company.model.Violation;
+
+/**
+ * A manager must earn between {@code minRatio} and {@code maxRatio} times the average salary of
+ * their direct reports. Employees without reports are never checked.
+ */
+public record SalaryBandRule(double minRatio, double maxRatio) implements Rule {
+
+    /** The company-wide band: 120% to 150% of the direct reports' average. */
+    public static final SalaryBandRule DEFAULT = new SalaryBandRule(1.20, 1.50);
+
+    public SalaryBandRule {
+        if (!(minRatio > 0) || !(maxRatio >= minRatio)) {
+            throw new IllegalArgumentException("Invalid salary band " + minRatio + ".." + maxRatio);
+        }
+    }
+
+    @Override
+    public Violation check(String id, double salary, double avgSubordinateSalary, int managersBetween) {
+        return Double.isNaN(avgSubordinateSalary) ? null : assess(id, salary, avgSubordinateSalary);
+    }
+
+    /** Checks a manager against the band; null when the salary is inside it. */
+    public Violation assess(String id, double salary, double avgSubordinateSalary) {
+        double minAllowed = avgSubordinateSalary * minRatio;
+        double maxAllowed = avgSubordinateSalary * maxRatio;
+        if (salary < minAllowed) {
+            return new Violation(id, Violation.Kind.UNDERPAID, minAllowed, minAllowed - salary);
+        } else if (salary > maxAllowed) {
+            return new Violation(id, Violation.Kind.OVERPAID, maxAllowed, salary - maxAllowed);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package com.company.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Calls back when a file changes, once writes have settled.
+ *
+ * Changes are noticed through a {@link WatchService} on the parent directory. That covers
+ * in-place writes as well as a new file renamed over the old one, and every reported change is
+ * trusted, even one that leaves the modification time and size as they were. If the file system
+ * offers no watch service, the file's modification time and size are polled instead; polling
+ * cannot see a rewrite that keeps both, e.g. one of the same size within a coarse mtime tick.
+ * Every change restarts the debounce timer, so a burst of writes triggers one callback,
+ * {@code debounce} after the last write. No callback fires while the file is missing.
+ *
+ * Callbacks run on one background thread, never concurrently. Changes noticed while or after
+ * the watcher closes are dropped.
+ */
+public final class FileWatcher implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(FileWatcher.class.getName());
+    private static final Duration DEFAULT_POLL = Duration.ofSeconds(1);
+
+    private final Path file;
+    private final Duration debounce;
+    private final Runnable onChange;
+    private final ScheduledExecutorService scheduler;
+    private WatchService watchService;
+    private ScheduledFuture<?> pending;
+    private boolean closed;
+
+    private FileWatcher(Path file, Duration debounce, Runnable onChange) {
+        this.file = file.toAbsolutePath();
+        this.debounce = debounce;
+        this.onChange = onChange;
+        this.scheduler = Executors.newScheduledThreadPool(1, r -> {
+            Thread t = new Thread(r, "file-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Watches {@code file} with a {@link WatchService}, or polls it when none is available. */
+    public static FileWatcher watch(Path file, Duration debounce, Runnable onChange) {
+        FileWatcher watcher = new FileWatcher(file, debounce, onChange);
+        try {
+            watcher.startWatchService();
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOG.log(Level.INFO, "No watch service for " + file + ", polling instead: " + ex.getMessage());
+            watcher.startPolling(DEFAULT_POLL);
+        }
+        return watcher;
+    }
+
+    /** Polls {@code file}'s modification time and size every {@code interval}. */
+    public static FileWatcher poll(Path file, Duration interval, Duration debounce, Runnable onChange) {
+        FileWatcher watcher = new FileWatcher(file, debounce, onChange);
+        watcher.startPolling(interval);
+        return watcher;
+    }
+
+    private void startWatchService() throws IOException {
+        Path dir = file.getParent();
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                                || file.getFileName().equals(event.context())) {
+                            changed();
+                        }
+                    }
+                    if (!key.reset()) {
+                        LOG.warning("Stopped watching " + dir + ", polling instead");
+                        startPolling(DEFAULT_POLL);
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                // closed
+            }
+        }, "file-watch-events");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private synchronized void startPolling(Duration interval) {
+        if (closed) return;
+        String[] last = {fingerprint()};
+        scheduler.scheduleWithFixedDelay(() -> {
+            String now = fingerprint();
+            if (!Objects.equals(now, last[0])) {
+                last[0] = now;
+                changed();
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void changed() {
+        if (closed) return; // the scheduler is shut down and would reject the task
+        if (pending != null) pending.cancel(false);
+        pending = scheduler.schedule(this::fire, debounce.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void fire() {
+        if (!Files.exists(file)) return;
+        try {
+            onChange.run();
+        } catch (RuntimeException ex) {
+            LOG.log(Level.WARNING, "Change handler failed for " + file, ex);
+        }
+    }
+
+    /** Modification time and size, or null while the file is missing. */
+    private String fingerprint() {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return attrs.lastModifiedTime() + "/" + attrs.size();
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            scheduler.shutdownNow();
+        }
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                LOG.log(Level.FINE, "Closing watch service", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.company.server;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Employee;
+import com.company.report.Json;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only JSON query service over an in-memory org, on the JDK's built-in HTTP server.
+ *
+ * Endpoints:
+ * - {@code GET /ceo} and {@code GET /employees/{id}}: one employee with the ids of their direct reports
+ * - {@code GET /violations/salaries}: {@code {"underpaid":[...],"overpaid":[...]}}
+ * - {@code GET /violations/reporting-lines?limit=N}: rendered long reporting lines
+ * - {@code POST /reload}: re-reads the source file
+ *
+ * Requests run on a fixed pool of worker threads. Each request reads the {@link OrgSnapshot}
+ * current when it starts. A reload builds a complete new snapshot off to the side and swaps it in
+ * atomically, so readers never block and never see a half-loaded org. A failed reload keeps
+ * serving the previous snapshot. With {@link #watch(Duration)} the source is reloaded
+ * automatically whenever it changes on disk.
+ *
+ * There is no authentication, and responses include every salary, so by default the server only
+ * listens on the loopback interface. Binding to another address exposes it to that network.
+ */
+public class OrgServer implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(OrgServer.class.getName());
+
+    private final Path source;
+    private final Path snapshotFile; // null = always parse the CSV
+    private final int defaultLimit;
+    private final AtomicReference<OrgSnapshot> current = new AtomicReference<>();
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final AtomicInteger failedReloads = new AtomicInteger();
+    private FileWatcher watcher;
+
+    /** Listens on {@code port} of the loopback interface only; 0 picks a free port. */
+    public OrgServer(Path source, int port, int threads, int defaultLimit) throws IOException, ValidationException {
+        this(source, new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads, defaultLimit);
+    }
+
+    public OrgServer(Path source, InetSocketAddress address, int threads, int defaultLimit)
+            throws IOException, ValidationException {
+        this(source, null, address, threads, defaultLimit);
+    }
+
+    /**
+     * Loads and reloads through the binary {@code snapshotFile} when it is not null, so a restart
+     * or a reload of an unchanged CSV skips parsing and validation.
+     */
+    public OrgServer(Path source, Path snapshotFile, InetSocketAddress address, int threads, int defaultLimit)
+            throws IOException, ValidationException {
+        this.source = source;
+        this.snapshotFile = snapshotFile;
+        this.defaultLimit = defaultLimit;
+        current.set(OrgSnapshot.load(source, snapshotFile, defaultLimit));
+
+        AtomicInteger n = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "org-server-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(workers);
+        server.createContext("/ceo", get(ex -> employee(snapshot().getCeo())));
+        server.createContext("/employees/", get(ex -> employee(snapshot()
+                .getById(ex.getRequestURI().getPath().substring("/employees/".length())).orElse(null))));
+        server.createContext("/violations/salaries", get(ex -> ok(salaries(snapshot().validateSalaries()))));
+        server.createContext("/violations/reporting-lines", get(ex -> {
+            int limit = limitParam(ex).orElse(defaultLimit);
+            return ok("{\"limit\":" + limit + ",\"violations\":"
+                    + array(snapshot().validateReportingLines(limit)) + "}");
+        }));
+        server.createContext("/reload", handler("POST", ex -> {
+            try {
+                OrgSnapshot s = reload();
+                return ok("{\"employees\":" + s.size() + ",\"loadedAt\":" + Json.quote(s.loadedAt().toString()) + "}");
+            } catch (ValidationException | IOException e) {
+                return new Response(422, error(e.getMessage()));
+            }
+        }));
+    }
+
+    public void start() {
+        server.start();
+        LOG.info("Serving " + source + " on " + address());
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    public OrgSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Loads the source into a new snapshot and publishes it. Reloads are serialized; readers
+     * are not blocked. On failure the current snapshot stays in place and the error is thrown.
+     */
+    public synchronized OrgSnapshot reload() throws IOException, ValidationException {
+        OrgSnapshot next = OrgSnapshot.load(source, snapshotFile, defaultLimit);
+        current.set(next);
+        LOG.info("Reloaded " + next.size() + " employees from " + source);
+        return next;
+    }
+
+    /**
+     * Reloads in the background whenever the source file changes, {@code debounce} after the
+     * last write. Files that fail validation are logged and the current snapshot stays live.
+     */
+    public synchronized void watch(Duration debounce) {
+        if (watcher != null) watcher.close();
+        watcher = FileWatcher.watch(source, debounce, this::reloadInBackground);
+    }
+
+    private void reloadInBackground() {
+        try {
+            reload();
+        } catch (ValidationException ex) {
+            failedReloads.incrementAndGet();
+            LOG.warning("Keeping previous snapshot, " + source + " is invalid: " + ex.getMessage());
+        } catch (IOException ex) {
+            failedReloads.incrementAndGet();
+            LOG.log(Level.WARNING, "Keeping previous snapshot, cannot read " + source, ex);
+        }
+    }
+
+    /** Background reloads that failed and left the previous snapshot live. */
+    int failedReloads() {
+        return failedReloads.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (watcher != null) watcher.close();
+        }
+        server.stop(0);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Response(int status, String body) {}
+
+    @FunctionalInterface
+    private interface Route {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static HttpHandler get(Route route) {
+        return handler("GET", route);
+    }
+
+    private static HttpHandler handler(String method, Route route) {
+        return exchange -> {
+            Response response;
+            try {
+                response = method.equals(exchange.getRequestMethod())
+                        ? route.handle(exchange)
+                        : new Response(405, error("Use " + method));
+            } catch (IllegalArgumentException ex) {
+                response = new Response(400, error(ex.getMessage()));
+            } catch (RuntimeException ex) {
+                LOG.log(Level.WARNING, "Request failed: " + exchange.getRequestURI(), ex);
+                response = new Response(500, error(String.valueOf(ex.getMessage())));
+            }
+            send(exchange, response);
+        };
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Optional<Integer> limitParam(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) return Optional.empty();
+        for (String param : query.split("&")) {
+            if (param.startsWith("limit=")) {
+                try {
+                    return Optional.of(Integer.parseInt(param.substring("limit=".length())));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid limit: " + param.substring("limit=".length()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Response ok(String body) {
+        return new Response(200, body);
+    }
+
+    private static Response employee(Employee e) {
+        if (e == null) return new Response(404, error("Employee not found"));
+        return ok("{\"id\":" + Json.quote(e.getId())
+                + ",\"firstName\":" + Json.quote(e.getFirstName())
+                + ",\"lastName\":" + Json.quote(e.getLastName())
+                + ",\"salary\":" + Json.number(e.getSalary())
+                + ",\"managerId\":" + Json.quote(e.getManagerId())
+                + ",\"subordinates\":" + array(e.getSubordinates().stream().map(Employee::getId).toList()) + "}");
+    }
+
+    private static String salaries(Map<String, List<String>> report) {
+        return "{\"underpaid\":" + array(report.getOrDefault("underpaid", List.of()))
+                + ",\"overpaid\":" + array(report.getOrDefault("overpaid", List.of())) + "}";
+    }
+
+    private static String array(List<String> values) {
+        return values.stream().map(Json::quote).collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+}
@@ -0,0 +1,77 @@
+package com.company.server;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Employee;
+import com.company.report.ViolationRenderer;
+import com.company.service.EmployeeServiceImpl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One fully loaded org, published to readers only once it is complete and never changed after.
+ *
+ * The wrapped service is loaded and its salary and reporting-line results are computed before
+ * the snapshot leaves {@link #load}, so every later call only reads. Other reporting-line
+ * limits are answered by a read-only scan instead of re-tracking state. That keeps concurrent
+ * readers safe without locks.
+ */
+public final class OrgSnapshot {
+
+    private final Path source;
+    private final Instant loadedAt;
+    private final EmployeeServiceImpl service;
+    private final int defaultLimit;
+    private final Map<String, List<String>> salaries;
+    private final List<String> reportingLines;
+
+    private OrgSnapshot(Path source, EmployeeServiceImpl service, int defaultLimit) {
+        this.source = source;
+        this.loadedAt = Instant.now();
+        this.service = service;
+        this.defaultLimit = defaultLimit;
+        this.salaries = Map.copyOf(service.validateSalaries());
+        this.reportingLines = List.copyOf(service.validateReportingLines(defaultLimit));
+    }
+
+    public static OrgSnapshot load(Path source, int defaultLimit) throws IOException, ValidationException {
+        return load(source, null, defaultLimit);
+    }
+
+    /**
+     * As {@link #load(Path, int)}, warm-starting from the binary {@code snapshotFile} (see
+     * {@link EmployeeServiceImpl#loadEmployees(Path, Path)}) when it is not null.
+     */
+    public static OrgSnapshot load(Path source, Path snapshotFile, int defaultLimit)
+            throws IOException, ValidationException {
+        EmployeeServiceImpl service = new EmployeeServiceImpl();
+        if (snapshotFile == null) service.loadEmployees(source);
+        else service.loadEmployees(source, snapshotFile);
+        return new OrgSnapshot(source, service, defaultLimit);
+    }
+
+    public Path source() { return source; }
+    public Instant loadedAt() { return loadedAt; }
+    public int size() { return service.getAll().size(); }
+    public Employee getCeo() { return service.getCeo(); }
+    public Optional<Employee> getById(String id) { return service.getById(id); }
+
+    /** Same content as {@code EmployeeService.validateSalaries()}. */
+    public Map<String, List<String>> validateSalaries() {
+        return salaries;
+    }
+
+    /** Same content as {@code EmployeeService.validateReportingLines(limit)}. */
+    public List<String> validateReportingLines(int limit) {
+        if (limit == defaultLimit) return reportingLines;
+        ViolationRenderer renderer = new ViolationRenderer(service::getById);
+        List<String> lines = new ArrayList<>();
+        service.forEachReportingLineViolation(limit, v -> lines.add(renderer.render(v)));
+        return lines;
+    }
+}
@@ -0,0 +1,63 @@
+package com.company.service;
+
+/**
+ * Binary-lifting ancestor table over an {@link EulerTour}: {@code up[j][i]} is the position of
+ * the {@code 2^j}-th manager of position {@code i}, or -1 above the CEO. Only as many levels as
+ * the deepest reporting line needs are built, so a flat org costs a few ints per employee.
+ *
+ * K-th manager and lowest common manager take O(log depth); "is a manager of" checks use the
+ * tour ranges directly.
+ */
+final class AncestorIndex {
+
+    private final EulerTour tour;
+    private final int[] depth;
+    private final int[][] up;
+
+    AncestorIndex(EulerTour tour) {
+        int n = tour.size();
+        this.tour = tour;
+        this.depth = new int[n];
+        int maxDepth = 0;
+        for (int i = 1; i < n; i++) {
+            depth[i] = depth[tour.parent[i]] + 1; // parents precede children in preorder
+            maxDepth = Math.max(maxDepth, depth[i]);
+        }
+
+        int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, maxDepth));
+        this.up = new int[levels][];
+        up[0] = tour.parent.clone();
+        for (int j = 1; j < levels; j++) {
+            int[] prev = up[j - 1];
+            int[] level = new int[n];
+            for (int i = 0; i < n; i++) {
+                level[i] = prev[i] < 0 ? -1 : prev[prev[i]];
+            }
+            up[j] = level;
+        }
+    }
+
+    int depthAt(int pos) {
+        return depth[pos];
+    }
+
+    /** Position {@code k} levels above {@code pos} (0 is {@code pos} itself), or -1 past the CEO. */
+    int ancestor(int pos, int k) {
+        if (k > depth[pos]) return -1;
+        for (int j = 0; k > 0; j++, k >>>= 1) {
+            if ((k & 1) != 0) pos = up[j][pos];
+        }
+        return pos;
+    }
+
+    /** Deepest position whose subtree contains both; one of them when it manages the other. */
+    int lowestCommon(int a, int b) {
+        if (a == b || tour.encloses(a, b)) return a;
+        if (tour.encloses(b, a)) return b;
+        for (int j = up.length - 1; j >= 0; j--) {
+            int next = up[j][a];
+            if (next >= 0 && !tour.encloses(next, b)) a = next;
+        }
+        return tour.parent[a];
+    }
+}
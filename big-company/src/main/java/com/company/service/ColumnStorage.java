@@ -0,0 +1,360 @@
+package com.company.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Where {@link ColumnarEmployeeService} keeps its columns: on the Java heap as plain arrays,
+ * or off it in fixed-size pages of direct {@link ByteBuffer}s or of memory-mapped temp files.
+ *
+ * Columns grow on demand. Numeric columns are zero-filled and written by index. String
+ * columns are append-only, and off-heap they are stored as length-prefixed UTF-8 in an arena.
+ * Paging keeps a column free of the 2 GB limit of a single buffer. A column's first page starts
+ * small and doubles up to the full page size, so a small file costs kilobytes, not a page per
+ * column; past that, growth adds pages and never copies. Off-heap columns hold no Java objects,
+ * so the garbage collector never scans them.
+ */
+abstract class ColumnStorage implements Closeable {
+
+    interface Column {
+        /**
+         * Gives the column up early; it must not be used afterwards. Direct pages go back to the
+         * storage and are reused by columns created later, and a mapped column's backing file is
+         * deleted. The JDK offers no way to unmap or free a buffer, so the memory itself is only
+         * returned to the OS once its buffers are garbage-collected.
+         */
+        default void release() {}
+    }
+
+    interface IntColumn extends Column {
+        int get(int i);
+        void set(int i, int value);
+    }
+
+    interface DoubleColumn extends Column {
+        double get(int i);
+        void set(int i, double value);
+    }
+
+    interface StringColumn extends Column {
+        String get(int i);
+        /** Appends and returns the new value's index. */
+        int append(String value);
+        /** Same as {@code get(i).equals(value)}, without decoding when it can be avoided. */
+        boolean matches(int i, String value);
+    }
+
+    abstract IntColumn ints();
+
+    abstract DoubleColumn doubles();
+
+    abstract StringColumn strings();
+
+    /** True for plain heap arrays, where caching materialized objects per index is cheap. */
+    abstract boolean onHeap();
+
+    @Override
+    public void close() {}
+
+    static ColumnStorage heap() {
+        return new Heap();
+    }
+
+    /** Direct buffers; bounded by {@code -XX:MaxDirectMemorySize}, which defaults to the max heap size. */
+    static ColumnStorage direct() {
+        return new Paged(null);
+    }
+
+    /** Memory-mapped temp files in {@code dir}, deleted on {@link #close()}; bounded by disk and address space. */
+    static ColumnStorage mapped(Path dir) {
+        return new Paged(dir);
+    }
+
+    private static final class Heap extends ColumnStorage {
+
+        @Override
+        IntColumn ints() {
+            return new IntColumn() {
+                private int[] values = new int[1024];
+
+                @Override
+                public int get(int i) { return i < values.length ? values[i] : 0; }
+
+                @Override
+                public void set(int i, int value) {
+                    if (i >= values.length) values = Arrays.copyOf(values, Math.max(i + 1, values.length * 2));
+                    values[i] = value;
+                }
+            };
+        }
+
+        @Override
+        DoubleColumn doubles() {
+            return new DoubleColumn() {
+                private double[] values = new double[1024];
+
+                @Override
+                public double get(int i) { return i < values.length ? values[i] : 0; }
+
+                @Override
+                public void set(int i, double value) {
+                    if (i >= values.length) values = Arrays.copyOf(values, Math.max(i + 1, values.length * 2));
+                    values[i] = value;
+                }
+            };
+        }
+
+        @Override
+        StringColumn strings() {
+            return new StringColumn() {
+                private String[] values = new String[1024];
+                private int size;
+
+                @Override
+                public String get(int i) { return values[i]; }
+
+                @Override
+                public int append(String value) {
+                    if (size == values.length) values = Arrays.copyOf(values, size * 2);
+                    values[size] = value;
+                    return size++;
+                }
+
+                @Override
+                public boolean matches(int i, String value) { return values[i].equals(value); }
+            };
+        }
+
+        @Override
+        boolean onHeap() { return true; }
+    }
+
+    private static final class Paged extends ColumnStorage {
+
+        static final int PAGE_SHIFT = 23;
+        static final int PAGE_BYTES = 1 << PAGE_SHIFT;
+        static final int FIRST_PAGE_BYTES = 1 << 12;
+        private static final byte[] ZEROS = new byte[1 << 16];
+
+        private final Path dir; // null = direct buffers
+        private final List<Pages> open = new ArrayList<>();
+        private final List<ByteBuffer> spare = new ArrayList<>(); // released full direct pages
+
+        Paged(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        IntColumn ints() {
+            Pages pages = pages();
+            int shift = PAGE_SHIFT - 2;
+            int mask = (1 << shift) - 1;
+            return new IntColumn() {
+                @Override
+                public int get(int i) {
+                    int at = (i & mask) << 2;
+                    return pages.page(i >>> shift, at + Integer.BYTES).getInt(at);
+                }
+
+                @Override
+                public void set(int i, int value) {
+                    int at = (i & mask) << 2;
+                    pages.page(i >>> shift, at + Integer.BYTES).putInt(at, value);
+                }
+
+                @Override
+                public void release() { pages.close(); }
+            };
+        }
+
+        @Override
+        DoubleColumn doubles() {
+            Pages pages = pages();
+            int shift = PAGE_SHIFT - 3;
+            int mask = (1 << shift) - 1;
+            return new DoubleColumn() {
+                @Override
+                public double get(int i) {
+                    int at = (i & mask) << 3;
+                    return pages.page(i >>> shift, at + Double.BYTES).getDouble(at);
+                }
+
+                @Override
+                public void set(int i, double value) {
+                    int at = (i & mask) << 3;
+                    pages.page(i >>> shift, at + Double.BYTES).putDouble(at, value);
+                }
+
+                @Override
+                public void release() { pages.close(); }
+            };
+        }
+
+        /** Arena of {@code int length + UTF-8 bytes} entries that never straddle a page, plus a long offset per entry. */
+        @Override
+        StringColumn strings() {
+            Pages arena = pages();
+            Pages offsets = pages();
+            int shift = PAGE_SHIFT - 3;
+            int mask = (1 << shift) - 1;
+            return new StringColumn() {
+                private long cursor;
+                private int size;
+
+                @Override
+                public String get(int i) {
+                    long pos = offset(i);
+                    int at = (int) (pos & (PAGE_BYTES - 1));
+                    ByteBuffer page = arena.page((int) (pos >>> PAGE_SHIFT), at + Integer.BYTES);
+                    byte[] bytes = new byte[page.getInt(at)];
+                    page.get(at + Integer.BYTES, bytes);
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+
+                @Override
+                public int append(String value) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    int need = Integer.BYTES + bytes.length;
+                    if (need > PAGE_BYTES) throw new IllegalArgumentException("Value too long: " + bytes.length + " bytes");
+                    if ((cursor & (PAGE_BYTES - 1)) + need > PAGE_BYTES) {
+                        cursor = (cursor | (PAGE_BYTES - 1)) + 1;
+                    }
+                    int at = (int) (cursor & (PAGE_BYTES - 1));
+                    ByteBuffer page = arena.page((int) (cursor >>> PAGE_SHIFT), at + need);
+                    page.putInt(at, bytes.length);
+                    page.put(at + Integer.BYTES, bytes);
+                    int slot = (size & mask) << 3;
+                    offsets.page(size >>> shift, slot + Long.BYTES).putLong(slot, cursor);
+                    cursor += need;
+                    return size++;
+                }
+
+                @Override
+                public boolean matches(int i, String value) {
+                    long pos = offset(i);
+                    int at = (int) (pos & (PAGE_BYTES - 1));
+                    ByteBuffer page = arena.page((int) (pos >>> PAGE_SHIFT), at + Integer.BYTES);
+                    int length = page.getInt(at);
+                    if (length < value.length()) return false;
+                    for (int k = 0; k < length; k++) {
+                        byte b = page.get(at + Integer.BYTES + k);
+                        if (b < 0) return get(i).equals(value); // non-ASCII: compare decoded
+                        if (k >= value.length() || b != value.charAt(k)) return false;
+                    }
+                    return length == value.length();
+                }
+
+                @Override
+                public void release() {
+                    arena.close();
+                    offsets.close();
+                }
+
+                private long offset(int i) {
+                    int slot = (i & mask) << 3;
+                    return offsets.page(i >>> shift, slot + Long.BYTES).getLong(slot);
+                }
+            };
+        }
+
+        @Override
+        boolean onHeap() { return false; }
+
+        private synchronized Pages pages() {
+            Pages pages = new Pages();
+            open.add(pages);
+            return pages;
+        }
+
+        @Override
+        public synchronized void close() {
+            for (Pages pages : List.copyOf(open)) pages.close();
+            spare.clear();
+        }
+
+        /** A zero-filled full direct page, recycled from a released column when one is spare. */
+        private ByteBuffer directPage() {
+            ByteBuffer page;
+            synchronized (this) {
+                if (spare.isEmpty()) return ByteBuffer.allocateDirect(PAGE_BYTES);
+                page = spare.remove(spare.size() - 1);
+            }
+            for (int at = 0; at < PAGE_BYTES; at += ZEROS.length) page.put(at, ZEROS);
+            return page;
+        }
+
+        /**
+         * Growable run of {@link #PAGE_BYTES} pages, allocated on first touch. Page 0 starts at
+         * {@link #FIRST_PAGE_BYTES} and doubles as it fills; every later page is full-sized.
+         */
+        private final class Pages implements Closeable {
+            private ByteBuffer[] pages = new ByteBuffer[8];
+            private FileChannel channel;
+            private Path file;
+
+            /** Page {@code n}, grown so that at least its first {@code end} bytes exist. */
+            ByteBuffer page(int n, int end) {
+                ByteBuffer page = n < pages.length ? pages[n] : null;
+                if (page != null && end <= page.capacity()) return page;
+                if (n >= pages.length) pages = Arrays.copyOf(pages, Math.max(n + 1, pages.length * 2));
+                int bytes = n > 0 ? PAGE_BYTES : FIRST_PAGE_BYTES;
+                while (bytes < end) bytes <<= 1;
+                pages[n] = allocate(n, bytes, page).order(ByteOrder.nativeOrder());
+                return pages[n];
+            }
+
+            private ByteBuffer allocate(int n, int bytes, ByteBuffer old) {
+                if (dir == null) {
+                    ByteBuffer page = bytes == PAGE_BYTES ? directPage() : ByteBuffer.allocateDirect(bytes);
+                    if (old != null) page.put(0, old, 0, old.capacity());
+                    return page;
+                }
+                try {
+                    if (channel == null) {
+                        file = Files.createTempFile(dir, "columns", ".bin");
+                        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    }
+                    // a wider mapping of the same file region keeps what the old one held
+                    return channel.map(FileChannel.MapMode.READ_WRITE, (long) n * PAGE_BYTES, bytes);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+
+            @Override
+            public void close() {
+                // full direct pages are kept for reuse and the backing file goes now; the memory
+                // itself is returned to the OS once the buffers are unreachable
+                synchronized (Paged.this) {
+                    open.remove(this);
+                    if (dir == null) {
+                        for (ByteBuffer page : pages) {
+                            if (page != null && page.capacity() == PAGE_BYTES) spare.add(page);
+                        }
+                    }
+                }
+                pages = new ByteBuffer[0];
+                try {
+                    if (channel != null) channel.close();
+                    if (file != null) Files.deleteIfExists(file);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                } finally {
+                    channel = null;
+                    file = null;
+                }
+            }
+        }
+    }
+}
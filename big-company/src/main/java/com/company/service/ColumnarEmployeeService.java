@@ -0,0 +1,337 @@
+package com.company.service;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Employee;
+import com.company.model.Violation;
+import com.company.rules.SalaryBandRule;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Compact, primitive-backed alternative to {@link EmployeeServiceImpl} for very large orgs.
+ *
+ * Layout:
+ * - Ids are interned to dense ints {@code 0..n-1} in file order.
+ * - Salaries live in a double column, managers in an int column of parent indices (-1 for the CEO).
+ * - Direct reports are stored CSR-style: the children of {@code i} are
+ *   {@code children[childOffsets[i] .. childOffsets[i + 1])}, in file order.
+ * - Reporting depth (CEO = 0) is computed once, top-down, while linking.
+ *
+ * Columns are heap arrays by default. {@link #offHeap()} and {@link #mapped(Path)} keep every
+ * column, ids and names included, in direct buffers or memory-mapped files instead. The heap
+ * then only holds a few objects per column, whatever the org size, so GC pauses stay flat.
+ * Those services should be {@link #close() closed} when done.
+ *
+ * Validations run directly on the columns and produce the same output as {@link EmployeeServiceImpl}.
+ * {@link Employee} objects are only created when a caller asks for them through
+ * {@link #getEmployees()}, {@link #getCeo()} or {@link #getById(String)}. They are read-only:
+ * their subordinate lists are views over the CSR columns. With heap storage they are also cached.
+ */
+public class ColumnarEmployeeService implements EmployeeService, AutoCloseable {
+
+    private static final int NONE = -1;
+    private static final String READ_ONLY = "Columnar employees are read-only; reload to apply changes";
+
+    private final ColumnStorage storage;
+    private IdInterner ids;
+    private ColumnStorage.StringColumn firstNames;
+    private ColumnStorage.StringColumn lastNames;
+    private ColumnStorage.DoubleColumn salaries;
+    private ColumnStorage.IntColumn parents;
+    private ColumnStorage.IntColumn childOffsets;
+    private ColumnStorage.IntColumn children;
+    private ColumnStorage.IntColumn depths;
+    private int size;
+    private int ceo = NONE;
+
+    private ColumnStorage.StringColumn managerIds; // only held while loading
+    private Employee[] materialized; // heap storage only
+
+    public ColumnarEmployeeService() {
+        this(ColumnStorage.heap());
+    }
+
+    private ColumnarEmployeeService(ColumnStorage storage) {
+        this.storage = storage;
+        reset();
+    }
+
+    /**
+     * Columns in direct buffers. Their total size is capped by {@code -XX:MaxDirectMemorySize},
+     * which defaults to the maximum heap size, so raise it for very large files.
+     */
+    public static ColumnarEmployeeService offHeap() {
+        return new ColumnarEmployeeService(ColumnStorage.direct());
+    }
+
+    /** Columns in memory-mapped temp files under {@code dir}, deleted again on {@link #close()}. */
+    public static ColumnarEmployeeService mapped(Path dir) {
+        return new ColumnarEmployeeService(ColumnStorage.mapped(dir));
+    }
+
+    /** Loads a plain or gzip-compressed CSV, like {@link EmployeeServiceImpl#loadEmployees(Path)}. */
+    @Override
+    public void loadEmployees(Path path) throws IOException, ValidationException {
+        try (BufferedReader r = CsvInput.open(path)) {
+            loadFromFile(r);
+        }
+    }
+
+    public void loadFromFile(Reader reader) throws IOException, ValidationException {
+        reset();
+        try {
+            CsvRowParser.readRows(reader, (line, lineNo) ->
+                    CsvRowParser.parse(line, lineNo, id -> ids.indexOf(id) >= 0, this::append));
+            link();
+        } catch (ValidationException | IOException | RuntimeException ex) {
+            reset();
+            throw ex;
+        } finally {
+            if (managerIds != null) managerIds.release();
+            managerIds = null;
+        }
+    }
+
+    private void reset() {
+        if (ids != null) {
+            ids.release();
+            for (ColumnStorage.Column c : List.of(firstNames, lastNames, salaries, parents, childOffsets, children, depths)) {
+                c.release();
+            }
+        }
+        ids = new IdInterner(storage);
+        firstNames = storage.strings();
+        lastNames = storage.strings();
+        salaries = storage.doubles();
+        managerIds = storage.strings();
+        parents = storage.ints();
+        childOffsets = storage.ints();
+        children = storage.ints();
+        depths = storage.ints();
+        size = 0;
+        ceo = NONE;
+        materialized = null;
+    }
+
+    private Void append(String id, String firstName, String lastName, double salary, String managerId) {
+        ids.add(id);
+        firstNames.append(firstName);
+        lastNames.append(lastName);
+        salaries.set(size, salary);
+        managerIds.append(managerId == null ? "" : managerId);
+        size++;
+        return null;
+    }
+
+    private void link() throws ValidationException {
+        for (int i = 0; i < size; i++) {
+            String managerId = managerIds.get(i);
+            if (managerId.isEmpty()) {
+                if (ceo != NONE) {
+                    throw new ValidationException("Multiple CEOs detected");
+                }
+                ceo = i;
+                parents.set(i, NONE);
+            } else {
+                int m = ids.indexOf(managerId);
+                if (m < 0) {
+                    throw new ValidationException("Unknown manager '" + managerId +
+                            "' for employee " + ids.idAt(i));
+                }
+                parents.set(i, m);
+                childOffsets.set(m + 1, childOffsets.get(m + 1) + 1);
+            }
+        }
+
+        if (ceo == NONE) {
+            throw new ValidationException("No CEO found");
+        }
+
+        ColumnStorage.IntColumn cursor = storage.ints();
+        for (int i = 0; i < size; i++) {
+            childOffsets.set(i + 1, childOffsets.get(i + 1) + childOffsets.get(i));
+            cursor.set(i, childOffsets.get(i));
+        }
+        for (int i = 0; i < size; i++) {
+            int p = parents.get(i);
+            if (p == NONE) continue;
+            int slot = cursor.get(p);
+            children.set(slot, i);
+            cursor.set(p, slot + 1);
+        }
+        cursor.release();
+
+        computeDepths();
+    }
+
+    /** Breadth-first from the CEO; anything left unvisited sits on or below a reporting cycle. */
+    private void computeDepths() throws ValidationException {
+        for (int i = 0; i < size; i++) depths.set(i, NONE);
+        ColumnStorage.IntColumn queue = storage.ints();
+        int head = 0;
+        int tail = 0;
+        queue.set(tail++, ceo);
+        depths.set(ceo, 0);
+        while (head < tail) {
+            int m = queue.get(head++);
+            int childDepth = depths.get(m) + 1;
+            for (int c = childOffsets.get(m), end = childOffsets.get(m + 1); c < end; c++) {
+                int child = children.get(c);
+                depths.set(child, childDepth);
+                queue.set(tail++, child);
+            }
+        }
+        queue.release();
+        if (tail < size) {
+            for (int i = 0; i < size; i++) {
+                if (depths.get(i) == NONE) {
+                    throw new ValidationException(describeCycle(i));
+                }
+            }
+        }
+    }
+
+    private String describeCycle(int unreachable) {
+        Map<Integer, Integer> visitedAt = new HashMap<>();
+        List<String> path = new ArrayList<>();
+        int current = unreachable;
+        while (!visitedAt.containsKey(current)) {
+            visitedAt.put(current, path.size());
+            path.add(ids.idAt(current));
+            current = parents.get(current);
+        }
+        List<String> cycle = new ArrayList<>(path.subList(visitedAt.get(current), path.size()));
+        cycle.add(ids.idAt(current));
+
+        String msg = "Reporting cycle detected: " + String.join(" -> ", cycle);
+        return current == unreachable
+                ? msg
+                : "Employee " + ids.idAt(unreachable) + " cannot reach the CEO. " + msg;
+    }
+
+    @Override
+    public List<Employee> getEmployees() {
+        return new EmployeeView();
+    }
+
+    @Override
+    public List<Violation> findSalaryViolations() {
+        List<Violation> underpaid = new ArrayList<>();
+        List<Violation> overpaid = new ArrayList<>();
+        forEachSalaryViolation(v -> (v.kind() == Violation.Kind.UNDERPAID ? underpaid : overpaid).add(v));
+        underpaid.addAll(overpaid);
+        return underpaid;
+    }
+
+    @Override
+    public void forEachSalaryViolation(Consumer<? super Violation> action) {
+        for (int m = 0; m < size; m++) {
+            int from = childOffsets.get(m);
+            int to = childOffsets.get(m + 1);
+            if (from == to) continue;
+
+            double total = 0;
+            for (int c = from; c < to; c++) total += salaries.get(children.get(c));
+            double avg = total / (to - from);
+
+            Violation v = SalaryBandRule.DEFAULT.assess(ids.idAt(m), salaries.get(m), avg);
+            if (v != null) action.accept(v);
+        }
+    }
+
+    @Override
+    public List<Violation> findReportingLineViolations(int limit) {
+        List<Violation> output = new ArrayList<>();
+        forEachReportingLineViolation(limit, output::add);
+        return output;
+    }
+
+    @Override
+    public void forEachReportingLineViolation(int limit, Consumer<? super Violation> action) {
+        for (int i = 0; i < size; i++) {
+            int depth = depths.get(i);
+            int between = depth > 1 ? depth - 1 : 0;
+            if (between > limit) {
+                action.accept(new Violation(ids.idAt(i), Violation.Kind.LONG_REPORTING_LINE, limit, between - limit));
+            }
+        }
+    }
+
+    @Override
+    public Employee getCeo() {
+        return ceo == NONE ? null : employeeAt(ceo);
+    }
+
+    @Override
+    public Optional<Employee> getById(String id) {
+        int index = ids.indexOf(id);
+        return index < 0 ? Optional.empty() : Optional.of(employeeAt(index));
+    }
+
+    public int size() { return size; }
+
+    /** Releases the columns; off-heap buffers are freed and mapped files deleted. */
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+    private Employee employeeAt(int i) {
+        if (!storage.onHeap()) return new ColumnarEmployee(i);
+        if (materialized == null) materialized = new Employee[size];
+        Employee e = materialized[i];
+        if (e == null) {
+            e = new ColumnarEmployee(i);
+            materialized[i] = e;
+        }
+        return e;
+    }
+
+    private final class EmployeeView extends AbstractList<Employee> implements RandomAccess {
+        @Override
+        public Employee get(int index) {
+            Objects.checkIndex(index, size);
+            return employeeAt(index);
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+
+    /** Read-only employee whose subordinates are a view over the CSR child arrays. */
+    private final class ColumnarEmployee extends Employee {
+        private final int index;
+        private final List<Employee> subordinates;
+
+        ColumnarEmployee(int index) {
+            super(ids.idAt(index), firstNames.get(index), lastNames.get(index), salaries.get(index),
+                    parents.get(index) == NONE ? null : ids.idAt(parents.get(index)));
+            this.index = index;
+            this.subordinates = new SubordinateView();
+        }
+
+        @Override
+        public List<Employee> getSubordinates() { return subordinates; }
+
+        @Override
+        protected void addSubordinate(Employee e) {
+            throw new UnsupportedOperationException(READ_ONLY);
+        }
+
+        private final class SubordinateView extends AbstractList<Employee> implements RandomAccess {
+            @Override
+            public Employee get(int k) {
+                Objects.checkIndex(k, size());
+                return employeeAt(children.get(childOffsets.get(index) + k));
+            }
+
+            @Override
+            public int size() { return childOffsets.get(index + 1) - childOffsets.get(index); }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.company.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Opens employee files for the loaders, plain or gzip-compressed. The format is detected from
+ * the first two bytes (gzip's {@code 1f 8b} magic), not from the file name.
+ *
+ * Compressed files are inflated on a separate daemon thread, which hands fixed-size blocks to
+ * the reading thread through a bounded queue. Inflating and parsing overlap, so a load takes
+ * about as long as the slower of the two, and at most {@link #QUEUED_BLOCKS} blocks are in
+ * flight however large the file is. Blocks are recycled, so steady state allocates nothing.
+ * Both paths decode strictly: bytes that are not valid UTF-8 fail the load with a
+ * {@link java.nio.charset.MalformedInputException} instead of turning into U+FFFD.
+ */
+public final class CsvInput {
+
+    static final int BLOCK_BYTES = 1 << 20;
+    static final int QUEUED_BLOCKS = 8;
+    private static final int GZIP_MAGIC = 0x8b1f;
+    /** Expansion assumed for gzip input whose trailer cannot be trusted; CSV usually compresses 5-10x. */
+    static final int ASSUMED_GZIP_RATIO = 10;
+
+    private CsvInput() {}
+
+    static BufferedReader open(Path path) throws IOException {
+        if (!isCompressed(path)) return Files.newBufferedReader(path);
+        CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        return new BufferedReader(new InputStreamReader(new InflatingPipe(path), utf8), 1 << 16);
+    }
+
+    /** Whether {@code path} starts with the gzip magic bytes. */
+    public static boolean isCompressed(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            int b0 = in.read();
+            int b1 = in.read();
+            return b1 >= 0 && (b0 | b1 << 8) == GZIP_MAGIC;
+        }
+    }
+
+    /**
+     * Number of bytes the loaders will read from {@code path}. For gzip input that is the size in
+     * the gzip trailer, which is exact for single-member files under 4 GiB; when the trailer is
+     * smaller than the file itself it must have wrapped, and {@link #ASSUMED_GZIP_RATIO} times the
+     * compressed size is returned instead.
+     */
+    public static long contentSize(Path path) throws IOException {
+        long size = Files.size(path);
+        if (size < 18 || !isCompressed(path)) return size;
+        ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, size - 4 + trailer.position()) < 0) return size * ASSUMED_GZIP_RATIO;
+            }
+        }
+        long inflated = trailer.getInt(0) & 0xFFFFFFFFL;
+        return inflated >= size ? inflated : size * ASSUMED_GZIP_RATIO;
+    }
+
+    /** Consumer side of the pipe; the producer is a thread running {@link #inflate(Path)}. */
+    private static final class InflatingPipe extends InputStream {
+
+        private static final Block END = new Block(new byte[0]);
+
+        private final BlockingQueue<Block> full = new ArrayBlockingQueue<>(QUEUED_BLOCKS);
+        private final BlockingQueue<Block> empty = new ArrayBlockingQueue<>(QUEUED_BLOCKS + 2);
+        private final Thread inflater;
+        private volatile boolean closed;
+        private volatile Throwable failure;
+        private Block current;
+        private int position;
+
+        InflatingPipe(Path path) {
+            inflater = new Thread(() -> inflate(path), "csv-inflater");
+            inflater.setDaemon(true);
+            inflater.start();
+        }
+
+        private void inflate(Path path) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(path), 1 << 16)) {
+                while (!closed) {
+                    Block block = empty.poll();
+                    if (block == null) block = new Block(new byte[BLOCK_BYTES]);
+                    block.length = in.readNBytes(block.bytes, 0, BLOCK_BYTES);
+                    if (block.length == 0) break;
+                    if (!hand(block)) return;
+                }
+            } catch (Throwable ex) {
+                // whatever stops the inflater must reach the reader, or it would see a short file
+                failure = ex;
+            } finally {
+                hand(END);
+            }
+        }
+
+        /** Queues {@code block} for the reader; false once the reader has gone away. */
+        private boolean hand(Block block) {
+            try {
+                while (!closed) {
+                    if (full.offer(block, 100, TimeUnit.MILLISECONDS)) return true;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (current == null || position == current.length) {
+                if (current == END) return -1;
+                if (current != null) empty.offer(current);
+                current = take();
+                position = 0;
+                if (current == END) {
+                    if (failure != null) throw new IOException("Failed to decompress input: " + failure.getMessage(), failure);
+                    return -1;
+                }
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current.bytes, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        private Block take() throws IOException {
+            try {
+                return full.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for decompressed input");
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            inflater.interrupt();
+            full.clear();
+        }
+    }
+
+    private static final class Block {
+        final byte[] bytes;
+        int length;
+
+        Block(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
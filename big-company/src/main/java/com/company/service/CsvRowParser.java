@@ -0,0 +1,132 @@
+package com.company.service;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.LoadReport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Predicate;
+
+/**
+ * Single-pass tokenizer for {@code Id,firstName,lastName,salary,managerId} rows, shared by
+ * the object-based and columnar services. Fields are located with {@code indexOf}, trimmed
+ * and parsed exactly once, then handed to a {@link RowFactory} so callers decide what a
+ * row becomes (an {@code Employee}, or a set of column entries).
+ *
+ * Line numbers count data rows from 1 (the header is line 0), blank lines included.
+ */
+final class CsvRowParser {
+
+    @FunctionalInterface
+    interface RowFactory<T> {
+        T create(String id, String firstName, String lastName, double salary, String managerId);
+    }
+
+    @FunctionalInterface
+    interface LineHandler {
+        void handle(String line, int lineNo) throws ValidationException;
+    }
+
+    /** A row rejected by {@link #parse}, classified for diagnostic loads; {@code id} is null if the row has none. */
+    static final class RowException extends ValidationException {
+        private static final long serialVersionUID = 1L;
+
+        final LoadReport.Kind kind;
+        final String id;
+
+        RowException(LoadReport.Kind kind, String id, String message) {
+            super(message);
+            this.kind = kind;
+            this.id = id;
+        }
+    }
+
+    private CsvRowParser() {}
+
+    /** Streams every non-blank data row of {@code reader} to {@code handler}, closing the reader. */
+    static void readRows(Reader reader, LineHandler handler) throws IOException, ValidationException {
+        readRows(reader, handler, LoadProbe.disabled());
+    }
+
+    /** As {@link #readRows(Reader, LineHandler)}, booking read time and characters on {@code probe}. */
+    static void readRows(Reader reader, LineHandler handler, LoadProbe probe) throws IOException, ValidationException {
+        try (BufferedReader br = reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader)) {
+
+            long start = probe.mark();
+            String line = br.readLine(); // header
+            probe.read(start, line);
+            if (line == null) throw new ValidationException("CSV file is empty");
+
+            int lineNo = 0;
+            while (true) {
+                start = probe.mark();
+                line = br.readLine();
+                probe.read(start, line);
+                if (line == null) break;
+                lineNo++;
+                if (line.isBlank()) continue;
+                handler.handle(line, lineNo);
+            }
+        }
+    }
+
+    /**
+     * Tokenizes and validates one data row. Checks run in the order empty id,
+     * duplicate id, salary.
+     */
+    static <T> T parse(String line, int lineNo, Predicate<String> isDuplicate, RowFactory<T> factory)
+            throws ValidationException {
+        int c1 = line.indexOf(',');
+        int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+        int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+        if (c3 < 0) {
+            throw new RowException(LoadReport.Kind.MALFORMED_ROW, null,
+                    "Malformed line " + lineNo + ": expected at least 4 columns");
+        }
+        int c4 = line.indexOf(',', c3 + 1);
+
+        String id = field(line, 0, c1);
+        if (id.isEmpty()) {
+            throw new RowException(LoadReport.Kind.EMPTY_ID, null, "Empty id at line " + lineNo);
+        }
+
+        if (isDuplicate.test(id)) {
+            throw new RowException(LoadReport.Kind.DUPLICATE_ID, id, "Duplicate id '" + id + "' at line " + lineNo);
+        }
+
+        double salary;
+        try {
+            salary = Double.parseDouble(field(line, c3 + 1, c4 < 0 ? line.length() : c4));
+        } catch (NumberFormatException ex) {
+            throw new RowException(LoadReport.Kind.INVALID_SALARY, id, "Invalid salary for id " + id + " at line " + lineNo);
+        }
+        if (salary < 0) {
+            throw new RowException(LoadReport.Kind.NEGATIVE_SALARY, id, "Negative salary at line " + lineNo);
+        }
+
+        return factory.create(id, field(line, c1 + 1, c2), field(line, c2 + 1, c3), salary, managerId(line, c4));
+    }
+
+    /** The managerId column of a row that has at least four columns; null when it is missing. */
+    static String managerId(String line) {
+        int c = -1;
+        for (int i = 0; i < 4; i++) {
+            c = line.indexOf(',', c + 1);
+            if (c < 0) return null;
+        }
+        return managerId(line, c);
+    }
+
+    private static String managerId(String line, int c4) {
+        if (c4 < 0) return null;
+        int c5 = line.indexOf(',', c4 + 1);
+        return field(line, c4 + 1, c5 < 0 ? line.length() : c5);
+    }
+
+    private static String field(String line, int from, int to) {
+        return line.substring(from, to).trim();
+    }
+}
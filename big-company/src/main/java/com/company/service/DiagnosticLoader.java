@@ -0,0 +1,233 @@
+package com.company.service;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.LoadReport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Fail-slow load that reports every problem in a file instead of stopping at the first one.
+ *
+ * The calling thread reads lines and hands batches of {@link #BATCH_ROWS} rows to a fork-join
+ * pool, where they are tokenized and checked concurrently. Batches are merged in file order, with
+ * at most two per worker in flight, and the merge finds duplicate ids. Rows with a bad salary still
+ * count as employees for the hierarchy checks, so they do not cause follow-up "unknown manager"
+ * errors. The hierarchy pass then flags unknown managers, extra CEOs, a missing CEO and every
+ * reporting cycle (each once).
+ *
+ * Nothing is linked: only ids, manager ids and line numbers are kept.
+ */
+final class DiagnosticLoader {
+
+    static final int BATCH_ROWS = 8192;
+    private static final int NONE = -1;
+
+    private final int parallelism;
+    private final int maxProblems;
+
+    private final List<LoadReport.Problem> problems = new ArrayList<>();
+    private final Map<LoadReport.Kind, Long> counts = new EnumMap<>(LoadReport.Kind.class);
+    private final Map<String, Integer> indexOf = new HashMap<>();
+    private String[] ids = new String[1024];
+    private String[] managerIds = new String[1024];
+    private int[] lines = new int[1024];
+    private int size;
+    private long rows;
+
+    DiagnosticLoader(int parallelism, int maxProblems) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+        if (maxProblems < 0) throw new IllegalArgumentException("maxProblems must be >= 0");
+        this.parallelism = parallelism;
+        this.maxProblems = maxProblems;
+    }
+
+    LoadReport run(Reader reader) throws IOException, ValidationException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Deque<Future<Batch>> inFlight = new ArrayDeque<>();
+            Batch[] current = {new Batch()};
+            CsvRowParser.readRows(reader, (line, lineNo) -> {
+                current[0].add(line, lineNo);
+                if (current[0].size == BATCH_ROWS) {
+                    Batch full = current[0];
+                    inFlight.add(pool.submit(full::check));
+                    current[0] = new Batch();
+                    if (inFlight.size() > 2 * parallelism) merge(await(inFlight.poll()));
+                }
+            });
+            inFlight.add(pool.submit(current[0]::check));
+            while (!inFlight.isEmpty()) merge(await(inFlight.poll()));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+        checkHierarchy();
+        return new LoadReport(rows, List.copyOf(problems), Collections.unmodifiableMap(counts));
+    }
+
+    private void merge(Batch batch) {
+        for (int r = 0; r < batch.size; r++) {
+            rows++;
+            int lineNo = batch.lines[r];
+            String id = batch.ids[r];
+            if (batch.problems[r] != null) report(batch.problems[r]);
+            if (id == null) continue;
+
+            Integer first = indexOf.putIfAbsent(id, size);
+            if (first != null) {
+                report(LoadReport.Kind.DUPLICATE_ID, lineNo, id,
+                        "Duplicate id '" + id + "' at line " + lineNo + ", first at line " + lines[first]);
+                continue;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                managerIds = Arrays.copyOf(managerIds, size * 2);
+                lines = Arrays.copyOf(lines, size * 2);
+            }
+            ids[size] = id;
+            managerIds[size] = batch.managerIds[r];
+            lines[size] = lineNo;
+            size++;
+        }
+    }
+
+    private void checkHierarchy() {
+        int[] parents = new int[size];
+        int ceo = NONE;
+        for (int i = 0; i < size; i++) {
+            parents[i] = NONE;
+            String managerId = managerIds[i];
+            if (managerId == null || managerId.isEmpty()) {
+                if (ceo == NONE) {
+                    ceo = i;
+                } else {
+                    report(LoadReport.Kind.MULTIPLE_CEOS, lines[i], ids[i], "Multiple CEOs detected: " + ids[i]
+                            + " at line " + lines[i] + ", CEO " + ids[ceo] + " already at line " + lines[ceo]);
+                }
+                continue;
+            }
+            Integer m = indexOf.get(managerId);
+            if (m == null) {
+                report(LoadReport.Kind.UNKNOWN_MANAGER, lines[i], ids[i],
+                        "Unknown manager '" + managerId + "' for employee " + ids[i] + " at line " + lines[i]);
+            } else {
+                parents[i] = m;
+            }
+        }
+        if (ceo == NONE && size > 0) report(LoadReport.Kind.NO_CEO, 0, null, "No CEO found");
+        findCycles(parents);
+    }
+
+    /**
+     * Walks up from every employee, marking the path; meeting the current path again closes a
+     * cycle, meeting a finished employee or a root does not. Each employee is walked once, so O(n).
+     */
+    private void findCycles(int[] parents) {
+        byte[] state = new byte[size]; // 0 = unseen, 1 = on the current path, 2 = done
+        int[] path = new int[size];
+        for (int start = 0; start < size; start++) {
+            int length = 0;
+            int i = start;
+            while (i != NONE && state[i] == 0) {
+                state[i] = 1;
+                path[length++] = i;
+                i = parents[i];
+            }
+            if (i != NONE && state[i] == 1) {
+                int from = length - 1;
+                while (path[from] != i) from--;
+                reportCycle(Arrays.copyOfRange(path, from, length));
+            }
+            for (int k = 0; k < length; k++) state[path[k]] = 2;
+        }
+    }
+
+    /** Reports the cycle starting from its member that appears first in the file. */
+    private void reportCycle(int[] members) {
+        int first = 0;
+        for (int k = 1; k < members.length; k++) {
+            if (members[k] < members[first]) first = k;
+        }
+        // members run employee -> manager, the same direction as load errors
+        StringBuilder msg = new StringBuilder("Reporting cycle detected: ");
+        for (int k = 0; k <= members.length; k++) {
+            if (k > 0) msg.append(" -> ");
+            msg.append(ids[members[(first + k) % members.length]]);
+        }
+        int head = members[first];
+        report(LoadReport.Kind.CYCLE, lines[head], ids[head], msg.toString());
+    }
+
+    private void report(LoadReport.Kind kind, int line, String id, String message) {
+        report(new LoadReport.Problem(kind, line, id, message));
+    }
+
+    private void report(LoadReport.Problem problem) {
+        counts.merge(problem.kind(), 1L, Long::sum);
+        if (problems.size() < maxProblems) problems.add(problem);
+    }
+
+    /** Unchecked, since it also runs inside the line handler; {@link #run} unwraps it. */
+    private static Batch await(Future<Batch> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while checking"));
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /** Raw rows, then per row: id and manager id (when readable) and the row's problem, if any. */
+    private static final class Batch {
+        final String[] text = new String[BATCH_ROWS];
+        final int[] lines = new int[BATCH_ROWS];
+        final String[] ids = new String[BATCH_ROWS];
+        final String[] managerIds = new String[BATCH_ROWS];
+        final LoadReport.Problem[] problems = new LoadReport.Problem[BATCH_ROWS];
+        int size;
+
+        void add(String line, int lineNo) {
+            text[size] = line;
+            lines[size++] = lineNo;
+        }
+
+        Batch check() {
+            for (int r = 0; r < size; r++) {
+                int row = r;
+                try {
+                    ids[r] = CsvRowParser.parse(text[r], lines[r], id -> false, (id, first, last, salary, managerId) -> {
+                        managerIds[row] = managerId;
+                        return id;
+                    });
+                } catch (CsvRowParser.RowException ex) {
+                    problems[r] = new LoadReport.Problem(ex.kind, lines[r], ex.id, ex.getMessage());
+                    ids[r] = ex.id;
+                    if (ex.id != null) managerIds[r] = CsvRowParser.managerId(text[r]);
+                } catch (ValidationException ex) {
+                    problems[r] = new LoadReport.Problem(LoadReport.Kind.MALFORMED_ROW, lines[r], null, ex.getMessage());
+                }
+                text[r] = null;
+            }
+            return this;
+        }
+    }
+}
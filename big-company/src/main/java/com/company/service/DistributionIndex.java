@@ -0,0 +1,64 @@
+package com.company.service;
+
+import com.company.model.SalaryDistribution;
+
+import java.util.SplittableRandom;
+
+/**
+ * Per-subtree {@link SalaryDistribution}s over an {@link EulerTour}, built in one bottom-up
+ * pass: in reverse preorder every subtree is complete when it is reached, so its sketch is
+ * summarized and then merged into its parent's. Only the sketches of open ancestors are alive
+ * at any time, and each holds O(k) values, so memory is O(k * depth) plus one summary per
+ * manager. Individual contributors get an exact single-value distribution on demand.
+ *
+ * Summaries are built eagerly: each manager's sketch is summarized in O(k log k) and merged
+ * into its parent's in O(k), so construction is O(n + m * k log k) for {@code m} managers.
+ * That is near-linear for flat orgs but approaches O(n * k log k) on deep, narrow ones where
+ * almost everyone manages someone.
+ */
+final class DistributionIndex {
+
+    private static final double[] QUANTILES = {0.25, 0.5, 0.75, 0.9, 0.99};
+    private static final long SEED = 0x5EED;
+
+    private final EulerTour tour;
+    private final SalaryDistribution[] managers;
+
+    DistributionIndex(EulerTour tour) {
+        this(tour, QuantileSketch.DEFAULT_K);
+    }
+
+    DistributionIndex(EulerTour tour, int k) {
+        int n = tour.size();
+        this.tour = tour;
+        this.managers = new SalaryDistribution[n];
+        SplittableRandom random = new SplittableRandom(SEED);
+        QuantileSketch[] open = new QuantileSketch[n];
+        for (int i = n - 1; i >= 0; i--) {
+            double salary = tour.order[i].getSalary();
+            QuantileSketch sketch = open[i];
+            if (sketch != null) {
+                open[i] = null;
+                sketch.add(salary);
+                managers[i] = summarize(tour.end[i] - i, sketch);
+            }
+            int p = tour.parent[i];
+            if (p < 0) continue;
+            if (open[p] == null) open[p] = new QuantileSketch(k, random);
+            if (sketch == null) open[p].add(salary);
+            else open[p].merge(sketch);
+        }
+    }
+
+    /** Distribution for the subtree rooted at preorder position {@code pos}. */
+    SalaryDistribution distributionAt(int pos) {
+        if (managers[pos] != null) return managers[pos];
+        double s = tour.order[pos].getSalary();
+        return new SalaryDistribution(1, s, s, s, s, s, s, s);
+    }
+
+    private static SalaryDistribution summarize(int headcount, QuantileSketch sketch) {
+        double[] q = sketch.quantiles(QUANTILES);
+        return new SalaryDistribution(headcount, sketch.min(), q[0], q[1], q[2], q[3], q[4], sketch.max());
+    }
+}
@@ -2,11 +2,15 @@ package com.company.service;
 
 import com.company.exceptions.ValidationException;
 import com.company.model.Employee;
+import com.company.model.Violation;
+import com.company.report.ViolationRenderer;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
@@ -14,9 +18,34 @@ public interface EmployeeService {
 
     List<Employee> getEmployees();
 
-    Map<String, List<String>> validateSalaries();
+    /** Underpaid managers followed by overpaid ones, as structured results. */
+    List<Violation> findSalaryViolations();
 
-    List<String> validateReportingLines(int limit);
+    List<Violation> findReportingLineViolations(int limit);
+
+    /**
+     * Streams salary violations to {@code action} as they are found, without collecting them.
+     * Underpaid and overpaid results may interleave.
+     */
+    default void forEachSalaryViolation(Consumer<? super Violation> action) {
+        findSalaryViolations().forEach(action);
+    }
+
+    default void forEachReportingLineViolation(int limit, Consumer<? super Violation> action) {
+        findReportingLineViolations(limit).forEach(action);
+    }
+
+    /** Rendered form of {@link #findSalaryViolations()}, keyed {@code "underpaid"} and {@code "overpaid"}. */
+    default Map<String, List<String>> validateSalaries() {
+        return new ViolationRenderer(this::getById).renderSalaryReport(findSalaryViolations());
+    }
+
+    /** Rendered form of {@link #findReportingLineViolations(int)}. */
+    default List<String> validateReportingLines(int limit) {
+        return new ViolationRenderer(this::getById).renderAll(findReportingLineViolations(limit));
+    }
 
     Employee getCeo();
+
+    Optional<Employee> getById(String id);
 }
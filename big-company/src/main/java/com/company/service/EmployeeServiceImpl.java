@@ -1,7 +1,19 @@
 package com.company.service;
 
 import com.company.exceptions.ValidationException;
+import com.company.metrics.LoadMetrics;
+import com.company.metrics.MetricsListener;
+import com.company.metrics.Phase;
+import com.company.metrics.ValidationMetrics;
 import com.company.model.Employee;
+import com.company.model.LoadReport;
+import com.company.model.SalaryDistribution;
+import com.company.model.SubtreeStats;
+import com.company.model.Violation;
+import com.company.report.ViolationRenderer;
+import com.company.rules.RuleEngine;
+import com.company.rules.RuleSet;
+import com.company.rules.SalaryBandRule;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -9,6 +21,10 @@ import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -20,7 +36,8 @@ import java.util.logging.Logger;
  * - Salary must be a non-negative number.
  * - There must be exactly one CEO (employee with no manager).
  * - Manager references must point to existing employee IDs.
- * - Assuming there are no cycle in hierarchy. If a cycle is present then improvement needed to code to handle edge cases.
+ * - Every employee must reach the CEO through its managers. Reporting cycles (and the employees
+ * hanging below them) are rejected while linking the hierarchy.
  * - Salary validation assumption: The range of min and max salary is calculated based average of all the subordinates of the managers.
  * A manager is underpaid if their salary is less 120% than the average.
  * A manager is overpaid if their salary is more 150% than the average.
@@ -28,102 +45,309 @@ import java.util.logging.Logger;
  * if there are more than 4 managers between an employee and the CEO.
  * Currently passing the limit as 4 from main method. can take as an argument from console input
  * if needed.
+ *
+ * Loads and full validation scans are instrumented: each publishes {@link LoadMetrics} /
+ * {@link ValidationMetrics} to the {@link MetricsListener} set with {@link #setMetricsListener},
+ * emits the {@code com.company.*} JFR events, and is logged at {@code FINE}.
  */
 public class EmployeeServiceImpl implements EmployeeService {
     private static final Logger LOG = Logger.getLogger(EmployeeServiceImpl.class.getName());
 
     private final Map<String, Employee> employeeMap = new LinkedHashMap<>();
+    // reporting depth per employee id (CEO = 0), memoized once while linking
+    private final Map<String, Integer> depths = new HashMap<>();
     private Employee ceo;
 
+    // live violation state, kept current by the delta API once first computed
+    private final Map<String, Violation> underpaid = new LinkedHashMap<>();
+    private final Map<String, Violation> overpaid = new LinkedHashMap<>();
+    private final Set<String> longLines = new LinkedHashSet<>();
+    private boolean salariesTracked;
+    private Integer trackedLimit;
+
+    // query indexes, built on first use and dropped whenever the hierarchy changes
+    private EulerTour tour;
+    private SubtreeIndex subtreeIndex;
+    private DistributionIndex distributionIndex;
+    private List<Employee> employeesView;
+    private SecondaryIndexes.Names nameIndex;
+    private SecondaryIndexes.Salaries salaryIndex;
+    private SecondaryIndexes.Spans spanIndex;
+    private AncestorIndex ancestorIndex;
+
+    private ForkJoinPool validationPool; // null = sequential validation
+    private MetricsListener metricsListener = MetricsListener.NONE;
+
+    /**
+     * Loads a plain or gzip-compressed CSV; compression is detected from the file's magic bytes,
+     * and compressed input is inflated on a separate thread while this one parses.
+     */
     @Override
     public void loadEmployees(Path path) throws IOException, ValidationException {
-        try (BufferedReader r = Files.newBufferedReader(path)) {
-            loadFromFile(r);
+        LoadProbe probe = startProbe(path.toString());
+        load(path, probe);
+        finish(probe);
+    }
+
+    private void load(Path path, LoadProbe probe) throws IOException, ValidationException {
+        try (BufferedReader r = CsvInput.open(path)) {
+            load(r, probe);
         }
+        probe.bytes(Files.size(path));
     }
 
+    /** Immutable and cached in load order; rebuilt only after a reload or a change. */
     @Override
     public List<Employee> getEmployees() {
-        return employeeMap.values().stream().toList();
+        List<Employee> view = employeesView;
+        if (view == null) employeesView = view = List.copyOf(employeeMap.values());
+        return view;
     }
 
+    /**
+     * Streams the CSV straight off the reader: each row is tokenized, validated and
+     * turned into an {@link Employee} in a single pass, so neither the raw lines nor
+     * intermediate field arrays are retained. Line numbers in errors count data rows
+     * from 1 (the header is line 0), blank lines included.
+     */
     public void loadFromFile(Reader reader) throws IOException, ValidationException {
-        employeeMap.clear();
-        ceo = null;
+        LoadProbe probe = startProbe("reader");
+        load(reader, probe);
+        finish(probe);
+    }
 
-        List<String> lines = readCsvLines(reader);
+    private void load(Reader reader, LoadProbe probe) throws IOException, ValidationException {
+        clear();
 
-        for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i);
-            if (line.isBlank()) continue;
+        Predicate<String> isDuplicate = probe.validating(employeeMap::containsKey);
+        CsvRowParser.readRows(reader, (line, lineNo) -> {
+            long start = probe.mark();
+            Employee e = CsvRowParser.parse(line, lineNo, isDuplicate, LinkedEmployee::new);
+            start = probe.parsed(start);
+            employeeMap.put(e.getId(), e);
+            probe.add(Phase.VALIDATE_ROW, start);
+        }, probe);
 
-            String[] parts = parseRow(line, i);
-            validateRow(parts, i);
+        link(probe);
+    }
 
-            Employee e = createEmployee(parts);
-            employeeMap.put(e.getId(), e);
+    /**
+     * Warm-start load. When {@code snapshot} was written for a CSV with the same size and CRC32C checksum,
+     * the already validated and linked hierarchy is restored from it, skipping parsing and
+     * validation. Otherwise (or if the snapshot is unreadable) the CSV is loaded normally and a
+     * fresh snapshot is written next to it. The CSV is checksummed again after parsing, and no
+     * snapshot is written if it changed in between, since the rows read may not match the checksum.
+     *
+     * @return true when the hierarchy came from the snapshot
+     */
+    public boolean loadEmployees(Path csv, Path snapshot) throws IOException, ValidationException {
+        LoadProbe probe = startProbe(csv.toString());
+        long start = System.nanoTime();
+        long size = Files.size(csv);
+        long checksum = EmployeeSnapshot.checksum(csv);
+        if (Files.exists(snapshot)) {
+            try {
+                Optional<EmployeeSnapshot> restored = EmployeeSnapshot.read(snapshot, size, checksum);
+                if (restored.isPresent()) {
+                    probe.record(Phase.READ, System.nanoTime() - start);
+                    start = System.nanoTime();
+                    restore(restored.get());
+                    probe.record(Phase.LINK, System.nanoTime() - start);
+                    probe.bytes(Files.size(snapshot));
+                    finish(probe);
+                    return true;
+                }
+            } catch (IOException ex) {
+                LOG.log(Level.WARNING, "Ignoring unreadable snapshot " + snapshot + ": " + ex.getMessage(), ex);
+            }
         }
 
-        linkHierarchy();
+        load(csv, probe);
+        finish(probe);
+        if (Files.size(csv) != size || EmployeeSnapshot.checksum(csv) != checksum) {
+            LOG.warning("Not writing snapshot " + snapshot + ": " + csv + " changed while it was loaded");
+            return false;
+        }
+        EmployeeSnapshot.write(snapshot, size, checksum, employeeMap.values(), e -> depths.get(e.getId()), ceo);
+        return false;
     }
 
-    private List<String> readCsvLines(Reader reader) throws IOException, ValidationException {
-        List<String> result = new ArrayList<>();
-
-        try (BufferedReader br = reader instanceof BufferedReader
-                ? (BufferedReader) reader
-                : new BufferedReader(reader)) {
+    private void restore(EmployeeSnapshot snapshot) {
+        clear();
+        Employee[] employees = snapshot.employees;
+        for (int i = 0; i < employees.length; i++) {
+            employeeMap.put(employees[i].getId(), employees[i]);
+            depths.put(employees[i].getId(), snapshot.depths[i]);
+        }
+        ceo = employees[snapshot.ceo];
+    }
 
-            String line = br.readLine(); // header
-            if (line == null) throw new ValidationException("CSV file is empty");
+    /**
+     * Parallel variant of {@link #loadEmployees(Path)}: the file is memory-mapped in
+     * newline-aligned byte ranges which are parsed concurrently on a ForkJoin pool, then
+     * merged into {@code employeeMap} in file order before a single {@link #linkHierarchy()}.
+     * Errors (including duplicate ids) are reported exactly as the sequential loader would.
+     * Compressed files cannot be split, so they fall back to the pipelined {@link #loadEmployees(Path)}.
+     */
+    public void loadEmployeesParallel(Path path, int parallelism) throws IOException, ValidationException {
+        loadEmployeesParallel(path, parallelism, ParallelCsvLoader.chunkSizeFor(path, parallelism));
+    }
 
-            result.add(line);
+    public void loadEmployeesParallel(Path path) throws IOException, ValidationException {
+        loadEmployeesParallel(path, Runtime.getRuntime().availableProcessors());
+    }
 
-            while ((line = br.readLine()) != null) {
-                result.add(line.trim());
+    void loadEmployeesParallel(Path path, int parallelism, long chunkBytes) throws IOException, ValidationException {
+        if (CsvInput.isCompressed(path)) {
+            loadEmployees(path);
+            return;
+        }
+        clear();
+
+        LoadProbe probe = startProbe(path.toString());
+        long start = System.nanoTime();
+        long[] mergeNanos = {0};
+        int[] lineBase = {1};
+        new ParallelCsvLoader(parallelism, chunkBytes).load(path, chunk -> {
+            long mergeStart = System.nanoTime();
+            List<Employee> employees = chunk.employees();
+            for (int i = 0; i < employees.size(); i++) {
+                Employee e = employees.get(i);
+                if (employeeMap.putIfAbsent(e.getId(), e) != null) {
+                    throw new ValidationException("Duplicate id '" + e.getId() + "' at line "
+                            + (lineBase[0] + chunk.lineAt(i)));
+                }
+            }
+            if (chunk.failedLine() != null) {
+                // re-parse against the merged map so the error matches the sequential loader
+                CsvRowParser.parse(chunk.failedLine(), lineBase[0] + chunk.failedAt(),
+                        employeeMap::containsKey, LinkedEmployee::new);
+                throw new IllegalStateException("Row failed in chunk but parsed on merge");
             }
+            lineBase[0] += chunk.lineCount();
+            mergeNanos[0] += System.nanoTime() - mergeStart;
+        });
+        // chunks are read and parsed concurrently, so only the caller's wait and merge are split out
+        probe.record(Phase.PARSE, System.nanoTime() - start - mergeNanos[0]);
+        probe.record(Phase.VALIDATE_ROW, mergeNanos[0]);
+
+        link(probe);
+        probe.bytes(Files.size(path));
+        finish(probe);
+    }
+
+    /**
+     * Fail-slow check of a plain or gzip-compressed CSV that collects every problem instead of
+     * throwing at the first: bad rows, duplicate ids, unknown managers, extra or missing CEOs and
+     * reporting cycles, each with its line. Rows are checked in parallel on all cores. At most
+     * {@code maxProblems} are listed, but all are counted. Nothing is loaded into a service.
+     *
+     * @throws ValidationException only when the file has no header row
+     */
+    public static LoadReport diagnose(Path path, int maxProblems) throws IOException, ValidationException {
+        return diagnose(path, maxProblems, Runtime.getRuntime().availableProcessors());
+    }
+
+    public static LoadReport diagnose(Path path, int maxProblems, int parallelism)
+            throws IOException, ValidationException {
+        try (BufferedReader r = CsvInput.open(path)) {
+            return new DiagnosticLoader(parallelism, maxProblems).run(r);
         }
+    }
 
-        return result;
+    /**
+     * Loads one hierarchy from several shard files, e.g. one CSV per region, where managers may
+     * sit in another shard than their reports. Shards are parsed concurrently, merged in list
+     * order and linked in one pass. Duplicate ids, the single CEO and unknown managers are checked
+     * across all shards, and errors name the shard and its line.
+     */
+    public void loadShards(List<Path> shards) throws IOException, ValidationException {
+        loadShards(shards, Runtime.getRuntime().availableProcessors());
     }
 
-    private String[] parseRow(String line, int lineNo) throws ValidationException {
-        String[] parts = line.split(",", -1);
+    public void loadShards(List<Path> shards, int parallelism) throws IOException, ValidationException {
+        clear();
+
+        LoadProbe probe = startProbe(shards.toString());
+        long start = System.nanoTime();
+        List<ShardedCsvLoader.Shard> parsed = new ShardedCsvLoader(parallelism).load(shards);
+        probe.record(Phase.PARSE, System.nanoTime() - start);
+        start = System.nanoTime();
+        ShardedCsvLoader.merge(parsed, employeeMap);
+        probe.record(Phase.VALIDATE_ROW, System.nanoTime() - start);
+
+        link(probe);
+        long bytes = 0;
+        for (Path shard : shards) bytes += Files.size(shard);
+        probe.bytes(bytes);
+        finish(probe);
+    }
 
-        if (parts.length < 4) {
-            throw new ValidationException("Malformed line " + lineNo + ": expected at least 4 columns");
-        }
-        return parts;
+    /**
+     * Sends load and validation metrics to {@code listener}, and times read, parse and row
+     * validation per row while it is set. {@link MetricsListener#NONE} switches that off again.
+     */
+    public void setMetricsListener(MetricsListener listener) {
+        this.metricsListener = Objects.requireNonNull(listener);
     }
 
-    private void validateRow(String[] parts, int lineNo) throws ValidationException {
-        String id = parts[0].trim();
-        String salaryStr = parts[3].trim();
+    private LoadProbe startProbe(String source) {
+        return new LoadProbe(source, metricsListener, metricsListener != MetricsListener.NONE
+                || LOG.isLoggable(Level.FINE) || LoadProbe.phaseEventsEnabled());
+    }
 
-        if (id.isEmpty()) {
-            throw new ValidationException("Empty id at line " + lineNo);
-        }
+    private void link(LoadProbe probe) throws ValidationException {
+        long start = System.nanoTime();
+        linkHierarchy();
+        probe.record(Phase.LINK, System.nanoTime() - start);
+    }
 
-        if (employeeMap.containsKey(id)) {
-            throw new ValidationException("Duplicate id '" + id + "' at line " + lineNo);
+    private void finish(LoadProbe probe) {
+        LoadMetrics m = probe.finish(employeeMap.size());
+        if (LOG.isLoggable(Level.FINE)) {
+            StringBuilder phases = new StringBuilder();
+            m.phaseNanos().forEach((phase, nanos) ->
+                    phases.append(String.format(" %s=%.1fms", phase, nanos / 1e6)));
+            LOG.fine(String.format("Loaded %d rows (%d bytes) from %s in %.1fms, %.0f rows/s, %d bytes allocated;%s",
+                    m.rows(), m.bytes(), m.source(), m.totalNanos() / 1e6, m.rowsPerSecond(),
+                    m.allocatedBytes(), phases));
         }
+    }
 
-        try {
-            double salary = Double.parseDouble(salaryStr);
-            if (salary < 0) throw new ValidationException("Negative salary at line " + lineNo);
-        } catch (NumberFormatException ex) {
-            throw new ValidationException("Invalid salary for id " + id + " at line " + lineNo);
+    private void finish(ValidationProbe probe, long violations) {
+        ValidationMetrics m = probe.finish(violations);
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine(String.format("%s found %d violations in %.1fms", m.phase(), m.violations(), m.nanos() / 1e6));
         }
     }
-    private Employee createEmployee(String[] parts) {
-        String id = parts[0].trim();
-        String firstName = parts[1].trim();
-        String lastName = parts[2].trim();
-        double salary = Double.parseDouble(parts[3].trim());
-        String managerId = (parts.length > 4 ? parts[4].trim() : null);
 
-        return new Employee(id, firstName, lastName, salary, managerId);
+    private void clear() {
+        employeeMap.clear();
+        clearLinks();
+    }
+
+    private void clearLinks() {
+        depths.clear();
+        ceo = null;
+        underpaid.clear();
+        overpaid.clear();
+        longLines.clear();
+        salariesTracked = false;
+        trackedLimit = null;
+        dropIndexes();
     }
+
+    private void dropIndexes() {
+        tour = null;
+        subtreeIndex = null;
+        distributionIndex = null;
+        ancestorIndex = null;
+        employeesView = null;
+        nameIndex = null;
+        salaryIndex = null;
+        spanIndex = null;
+    }
+
     private void linkHierarchy() throws ValidationException {
         for (Employee e : employeeMap.values()) {
             if (e.getManagerId() == null || e.getManagerId().isEmpty()) {
@@ -137,58 +361,172 @@ public class EmployeeServiceImpl implements EmployeeService {
                     throw new ValidationException("Unknown manager '" + e.getManagerId() +
                             "' for employee " + e.getId());
                 }
-                m.addSubordinate(e);
+                LinkedEmployee.link(m, e);
             }
         }
 
         if (ceo == null) {
             throw new ValidationException("No CEO found");
         }
+
+        computeDepths();
     }
 
-    @Override
-    public Map<String, List<String>> validateSalaries() {
-        List<String> underpaid = new ArrayList<>();
-        List<String> overpaid = new ArrayList<>();
+    /**
+     * Single top-down pass from the CEO memoizing every employee's depth, so reporting-line
+     * checks are O(n) instead of O(n * depth). Employees never reached sit on or below a
+     * reporting cycle and fail the load instead of hanging later validations.
+     */
+    private void computeDepths() throws ValidationException {
+        Deque<Employee> queue = new ArrayDeque<>();
+        depths.put(ceo.getId(), 0);
+        queue.add(ceo);
+        while (!queue.isEmpty()) {
+            Employee m = queue.poll();
+            int childDepth = depths.get(m.getId()) + 1;
+            for (Employee s : m.getSubordinates()) {
+                depths.put(s.getId(), childDepth);
+                queue.add(s);
+            }
+        }
+
+        if (depths.size() == employeeMap.size()) return;
+        for (Employee e : employeeMap.values()) {
+            if (!depths.containsKey(e.getId())) {
+                throw new ValidationException(describeCycle(e));
+            }
+        }
+    }
+
+    private String describeCycle(Employee unreachable) {
+        Map<String, Integer> seen = new LinkedHashMap<>();
+        Employee current = unreachable;
+        while (!seen.containsKey(current.getId())) {
+            seen.put(current.getId(), seen.size());
+            current = employeeMap.get(current.getManagerId());
+        }
+        List<String> path = new ArrayList<>(seen.keySet());
+        List<String> cycle = new ArrayList<>(path.subList(seen.get(current.getId()), path.size()));
+        cycle.add(current.getId());
+
+        String msg = "Reporting cycle detected: " + String.join(" -> ", cycle);
+        return cycle.get(0).equals(unreachable.getId())
+                ? msg
+                : "Employee " + unreachable.getId() + " cannot reach the CEO. " + msg;
+    }
 
+    /**
+     * Runs the full validation scans (and result formatting) on a fork-join pool of the given
+     * size. Each range of employees collects its own findings and ranges are merged in order,
+     * so results are identical to the sequential mode. 1, the default, stays sequential.
+     */
+    public void setValidationParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+        if (validationPool != null) validationPool.shutdown();
+        validationPool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Salary violations are computed in full on the first call after a load and then kept
+     * current by the delta API, which re-evaluates only the managers a change touches.
+     * After deltas, re-evaluated managers are listed after the untouched ones.
+     */
+    @Override
+    public List<Violation> findSalaryViolations() {
+        trackSalaries();
+        List<Violation> result = new ArrayList<>(underpaid.size() + overpaid.size());
+        result.addAll(underpaid.values());
+        result.addAll(overpaid.values());
+        return result;
+    }
 
+    /**
+     * Streams from the live state once it is tracked; before that, managers are assessed on
+     * the fly and nothing is retained.
+     */
+    @Override
+    public void forEachSalaryViolation(Consumer<? super Violation> action) {
+        if (salariesTracked) {
+            underpaid.values().forEach(action);
+            overpaid.values().forEach(action);
+            return;
+        }
+        ValidationProbe probe = new ValidationProbe(Phase.SALARY_VALIDATION, metricsListener);
+        long found = 0;
         for (Employee manager : employeeMap.values()) {
-            if (!isManager(manager)){
-                continue;
-            }
-            double avg = manager.getSubordinates().stream()
-                    .mapToDouble(Employee::getSalary)
-                    .average()
-                    .orElse(0.0);
-
-            double minAllowed = avg * 1.20;
-            double maxAllowed = avg * 1.50;
-            if (manager.getSalary() < minAllowed) {
-                String msg = String.format(
-                        "%s (%s) is underpaid by %.2f",
-                        manager.getFullName(),
-                        manager.getId(),
-                        (minAllowed - manager.getSalary())
-                );
-                underpaid.add(msg);
-
-            } else if (manager.getSalary() > maxAllowed) {
-                String msg = String.format(
-                        "%s (%s) is overpaid by %.2f",
-                        manager.getFullName(),
-                        manager.getId(),
-                        (manager.getSalary() - maxAllowed)
-                );
-                overpaid.add(msg);
+            Violation v = assessSalary(manager);
+            if (v != null) {
+                found++;
+                action.accept(v);
             }
         }
+        finish(probe, found);
+    }
 
+    @Override
+    public Map<String, List<String>> validateSalaries() {
+        trackSalaries();
         Map<String, List<String>> result = new HashMap<>();
-        result.put("underpaid", underpaid);
-        result.put("overpaid", overpaid);
+        result.put("underpaid", render(underpaid.values()));
+        result.put("overpaid", render(overpaid.values()));
         return result;
     }
 
+    private void trackSalaries() {
+        if (salariesTracked) return;
+        ValidationProbe probe = new ValidationProbe(Phase.SALARY_VALIDATION, metricsListener);
+        if (validationPool == null) {
+            for (Employee manager : employeeMap.values()) {
+                evaluateSalary(manager);
+            }
+        } else {
+            ParallelScan.<Employee, Violation>collect(validationPool, new ArrayList<>(employeeMap.values()),
+                    (manager, out) -> {
+                        Violation v = assessSalary(manager);
+                        if (v != null) out.add(v);
+                    }).forEach(this::record);
+        }
+        salariesTracked = true;
+        finish(probe, underpaid.size() + overpaid.size());
+    }
+
+    /** Renders with the shared {@link ViolationRenderer}, on the validation pool for large results. */
+    private List<String> render(Collection<Violation> violations) {
+        ViolationRenderer renderer = new ViolationRenderer(this::getById);
+        if (validationPool == null || violations.size() <= ParallelScan.LEAF_SIZE) {
+            return renderer.renderAll(new ArrayList<>(violations));
+        }
+        return ParallelScan.map(validationPool, new ArrayList<>(violations), renderer::render);
+    }
+
+    private void evaluateSalary(Employee manager) {
+        underpaid.remove(manager.getId());
+        overpaid.remove(manager.getId());
+        record(assessSalary(manager));
+    }
+
+    private void record(Violation v) {
+        if (v == null) return;
+        (v.kind() == Violation.Kind.UNDERPAID ? underpaid : overpaid).put(v.employeeId(), v);
+    }
+
+    /** Read-only check of one manager against the salary band; null when compliant or not a manager. */
+    private Violation assessSalary(Employee manager) {
+        if (!isManager(manager)){
+            return null;
+        }
+        return SalaryBandRule.DEFAULT.assess(manager.getId(), manager.getSalary(), averageSubordinateSalary(manager));
+    }
+
+    /** Average salary of the direct reports, {@code NaN} for non-managers. */
+    private static double averageSubordinateSalary(Employee manager) {
+        List<Employee> reports = manager.getSubordinates();
+        if (reports.isEmpty()) return Double.NaN;
+        double total = 0;
+        for (Employee s : reports) total += s.getSalary();
+        return total / reports.size();
+    }
+
     private boolean isManager(Employee e) {
         return !e.getSubordinates().isEmpty();
     }
@@ -196,12 +534,17 @@ public class EmployeeServiceImpl implements EmployeeService {
     /**
      * Count managers between employee and CEO (does not include CEO).
      * For an employee directly reporting to CEO this returns 0.
+     * Loaded employees are answered from the memoized depths; others walk their manager chain.
      */
     public int countManagersBetween(Employee employee) {
         if (employee == null) throw new IllegalArgumentException("employee null");
+        Integer depth = depths.get(employee.getId());
+        if (depth != null && employeeMap.get(employee.getId()) == employee) {
+            return Math.max(0, depth - 1);
+        }
         int count = 0;
         Employee current = employee;
-        while (current.getManagerId() != null) {
+        while (current.getManagerId() != null && count <= employeeMap.size()) {
             Employee manager = employeeMap.get(current.getManagerId());
             if (manager == null || manager == ceo) break;
             count++;
@@ -210,20 +553,404 @@ public class EmployeeServiceImpl implements EmployeeService {
         return count;
     }
 
+    /**
+     * The long-line set is kept current by the delta API for the most recently requested
+     * limit; asking for a different limit rescans the memoized depths once.
+     */
     @Override
-    public List<String> validateReportingLines(int limit) {
-        List<String> output = new ArrayList<>();
+    public List<Violation> findReportingLineViolations(int limit) {
+        trackReportingLines(limit);
+        List<Violation> output = new ArrayList<>(longLines.size());
+        for (String id : longLines) output.add(longLine(id, limit));
+        return output;
+    }
+
+    @Override
+    public void forEachReportingLineViolation(int limit, Consumer<? super Violation> action) {
+        if (trackedLimit != null && trackedLimit == limit) {
+            for (String id : longLines) action.accept(longLine(id, limit));
+            return;
+        }
+        ValidationProbe probe = new ValidationProbe(Phase.REPORTING_LINE_VALIDATION, metricsListener);
+        long found = 0;
         for (Employee e : employeeMap.values()) {
-            int between = countManagersBetween(e);
-            if (between > limit) {
-                String msg = String.format("LONG: %s (%s) by %d", e.getFullName(), e.getId(), (between - limit));
-                output.add(msg);
+            if (managersBetween(e.getId()) > limit) {
+                found++;
+                action.accept(longLine(e.getId(), limit));
             }
         }
-        return output;
+        finish(probe, found);
+    }
+
+    @Override
+    public List<String> validateReportingLines(int limit) {
+        return render(findReportingLineViolations(limit));
+    }
+
+    private void trackReportingLines(int limit) {
+        if (trackedLimit != null && trackedLimit == limit) return;
+        trackedLimit = limit;
+        longLines.clear();
+        ValidationProbe probe = new ValidationProbe(Phase.REPORTING_LINE_VALIDATION, metricsListener);
+        if (validationPool == null) {
+            for (Employee e : employeeMap.values()) {
+                evaluateReportingLine(e);
+            }
+        } else {
+            longLines.addAll(ParallelScan.<Employee, String>collect(validationPool,
+                    new ArrayList<>(employeeMap.values()), (e, out) -> {
+                        if (managersBetween(e.getId()) > limit) out.add(e.getId());
+                    }));
+        }
+        finish(probe, longLines.size());
+    }
+
+    private Violation longLine(String id, int limit) {
+        return new Violation(id, Violation.Kind.LONG_REPORTING_LINE, limit, managersBetween(id) - limit);
+    }
+
+    private int managersBetween(String id) {
+        return Math.max(0, depths.get(id) - 1);
+    }
+
+    private void evaluateReportingLine(Employee e) {
+        if (trackedLimit == null) return;
+        if (managersBetween(e.getId()) > trackedLimit) {
+            longLines.add(e.getId());
+        } else {
+            longLines.remove(e.getId());
+        }
+    }
+
+    /**
+     * Incremental changes applied to a loaded hierarchy without reloading it.
+     * Results of {@link #validateSalaries()} and {@link #validateReportingLines(int)} stay current.
+     * Employees handed out are never edited: a change replaces the changed employee and copies
+     * every manager above it with the new link (path copying), so objects obtained before the
+     * change keep their old values and subordinates. A change costs O(depth + the direct
+     * reports of those managers). The new hire itself is copied, not linked in.
+     */
+    public void hire(Employee employee) throws ValidationException {
+        if (employee.getId() == null || employee.getId().isEmpty()) {
+            throw new ValidationException("Empty id for new hire");
+        }
+        if (employeeMap.containsKey(employee.getId())) {
+            throw new ValidationException("Duplicate id '" + employee.getId() + "'");
+        }
+        if (employee.getSalary() < 0) {
+            throw new ValidationException("Negative salary for id " + employee.getId());
+        }
+        if (employee.getManagerId() == null) {
+            throw new ValidationException("New hire " + employee.getId() + " has no manager; only the CEO may have none");
+        }
+        if (!employee.getSubordinates().isEmpty()) {
+            throw new ValidationException("New hire " + employee.getId() + " cannot already have subordinates");
+        }
+        Employee manager = require(employee.getManagerId());
+
+        dropIndexes();
+        Employee hired = LinkedEmployee.copyOf(employee, employee.getSalary(), manager.getId(), List.of());
+        List<Employee> reports = new ArrayList<>(manager.getSubordinates());
+        reports.add(hired);
+        employeeMap.put(hired.getId(), hired);
+        replace(manager, reports);
+        assignDepths(hired, depths.get(manager.getId()) + 1);
+        reevaluateSalary(employeeMap.get(manager.getId()));
+    }
+
+    /** Removes an employee; their direct reports move up to the removed employee's manager. */
+    public void terminate(String id) throws ValidationException {
+        Employee leaver = require(id);
+        if (leaver == ceo) {
+            throw new ValidationException("Cannot terminate the CEO");
+        }
+        Employee manager = employeeMap.get(leaver.getManagerId());
+        int depth = depths.get(id);
+        dropIndexes();
+
+        List<Employee> reports = new ArrayList<>(manager.getSubordinates());
+        reports.remove(leaver);
+        List<Employee> movedUp = new ArrayList<>(leaver.getSubordinates().size());
+        for (Employee report : leaver.getSubordinates()) {
+            Employee moved = LinkedEmployee.copyOf(report, report.getSalary(), manager.getId(), report.getSubordinates());
+            employeeMap.put(moved.getId(), moved);
+            reports.add(moved);
+            movedUp.add(moved);
+        }
+        employeeMap.remove(id);
+        replace(manager, reports);
+        for (Employee moved : movedUp) assignDepths(moved, depth);
+
+        depths.remove(id);
+        underpaid.remove(id);
+        overpaid.remove(id);
+        longLines.remove(id);
+        reevaluateSalary(employeeMap.get(manager.getId()));
+    }
+
+    public void changeSalary(String id, double salary) throws ValidationException {
+        Employee e = require(id);
+        if (salary < 0) {
+            throw new ValidationException("Negative salary for id " + id);
+        }
+        dropIndexes();
+        Employee changed = LinkedEmployee.copyOf(e, salary, e.getManagerId(), e.getSubordinates());
+        publish(e, changed);
+        reevaluateSalary(changed);
+        if (changed != ceo) reevaluateSalary(employeeMap.get(changed.getManagerId()));
+    }
+
+    public void changeManager(String id, String newManagerId) throws ValidationException {
+        Employee e = require(id);
+        if (e == ceo) {
+            throw new ValidationException("Cannot change the CEO's manager");
+        }
+        Employee newManager = require(newManagerId);
+        for (Employee m = newManager; m != null; m = m == ceo ? null : employeeMap.get(m.getManagerId())) {
+            if (m == e) {
+                throw new ValidationException("Moving " + id + " under " + newManagerId + " would create a reporting cycle");
+            }
+        }
+        Employee oldManager = employeeMap.get(e.getManagerId());
+        if (oldManager == newManager) return;
+
+        dropIndexes();
+        List<Employee> left = new ArrayList<>(oldManager.getSubordinates());
+        left.remove(e);
+        replace(oldManager, left);
+
+        // the old manager's copy may have replaced an ancestor of the new one
+        newManager = employeeMap.get(newManagerId);
+        Employee moved = LinkedEmployee.copyOf(e, e.getSalary(), newManagerId, e.getSubordinates());
+        List<Employee> joined = new ArrayList<>(newManager.getSubordinates());
+        joined.add(moved);
+        employeeMap.put(id, moved);
+        replace(newManager, joined);
+        assignDepths(moved, depths.get(newManagerId) + 1);
+        reevaluateSalary(employeeMap.get(oldManager.getId()));
+        reevaluateSalary(employeeMap.get(newManagerId));
+    }
+
+    /** Publishes a copy of {@code manager} whose direct reports are {@code reports}. */
+    private void replace(Employee manager, List<Employee> reports) {
+        publish(manager, LinkedEmployee.copyOf(manager, manager.getSalary(), manager.getManagerId(), reports));
+    }
+
+    /**
+     * Makes {@code replacement} the current version of {@code old}, which holds the same place
+     * in the hierarchy: the map (and the CEO field) point at it, and each manager above is copied
+     * with the new link in place, up to the CEO.
+     */
+    private void publish(Employee old, Employee replacement) {
+        while (true) {
+            employeeMap.put(replacement.getId(), replacement);
+            if (old == ceo) {
+                ceo = replacement;
+                return;
+            }
+            Employee manager = employeeMap.get(old.getManagerId());
+            List<Employee> reports = new ArrayList<>(manager.getSubordinates());
+            reports.set(reports.indexOf(old), replacement);
+            old = manager;
+            replacement = LinkedEmployee.copyOf(manager, manager.getSalary(), manager.getManagerId(), reports);
+        }
+    }
+
+    private Employee require(String id) throws ValidationException {
+        Employee e = employeeMap.get(id);
+        if (e == null) throw new ValidationException("Unknown employee '" + id + "'");
+        return e;
+    }
+
+    private void reevaluateSalary(Employee manager) {
+        if (salariesTracked) evaluateSalary(manager);
+    }
+
+    /** Re-memoizes depths for the subtree rooted at {@code root} after it moved. */
+    private void assignDepths(Employee root, int rootDepth) {
+        Deque<Employee> queue = new ArrayDeque<>();
+        depths.put(root.getId(), rootDepth);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Employee m = queue.poll();
+            evaluateReportingLine(m);
+            int childDepth = depths.get(m.getId()) + 1;
+            for (Employee s : m.getSubordinates()) {
+                depths.put(s.getId(), childDepth);
+                queue.add(s);
+            }
+        }
+    }
+
+    /**
+     * Headcount, payroll and salary range of the subtree rooted at {@code id}, the employee
+     * included; empty for unknown ids. O(1) per query: an Euler-tour index is built in O(n)
+     * on the first query after a load or change and reused until the next one.
+     */
+    public Optional<SubtreeStats> getSubtreeStats(String id) {
+        int pos = positionOf(id);
+        if (pos < 0) return Optional.empty();
+        if (subtreeIndex == null) subtreeIndex = new SubtreeIndex(tour());
+        return Optional.of(subtreeIndex.statsAt(pos));
+    }
+
+    /**
+     * Salary quantiles of the subtree rooted at {@code id}, the employee included; empty for
+     * unknown ids. Every subtree's distribution is computed in one bottom-up pass over mergeable
+     * quantile sketches on the first query after a load or change; the pass costs O(k log k)
+     * per manager for sketch size {@code k}, so O(n + m * k log k) with {@code m} managers, and
+     * each query afterwards is O(1). Subtrees of up to
+     * a few hundred people are exact; beyond that each quantile is off by under 1% of the
+     * headcount in rank, with high probability.
+     */
+    public Optional<SalaryDistribution> getSalaryDistribution(String id) {
+        int pos = positionOf(id);
+        if (pos < 0) return Optional.empty();
+        return Optional.of(distributions().distributionAt(pos));
+    }
+
+    /**
+     * Employees in the subtree rooted at {@code id} whose salary lies outside the subtree's
+     * {@linkplain SalaryDistribution#isOutlier Tukey fences}, in hierarchy (preorder) order.
+     * Empty for unknown ids. O(subtree size) once the distributions are built.
+     */
+    public List<Employee> getSalaryOutliers(String id) {
+        int pos = positionOf(id);
+        if (pos < 0) return List.of();
+        SalaryDistribution d = distributions().distributionAt(pos);
+        EulerTour t = tour();
+        List<Employee> outliers = new ArrayList<>();
+        for (int i = pos; i < t.end[pos]; i++) {
+            if (d.isOutlier(t.order[i].getSalary())) outliers.add(t.order[i]);
+        }
+        return outliers;
+    }
+
+    private DistributionIndex distributions() {
+        if (distributionIndex == null) distributionIndex = new DistributionIndex(tour());
+        return distributionIndex;
+    }
+
+    /**
+     * Up to {@code limit} employees whose full name ("first last") or last name starts with
+     * {@code prefix}, ignoring case, in name order. O(log n + matches) once the index is built.
+     */
+    public List<Employee> findByNamePrefix(String prefix, int limit) {
+        if (nameIndex == null) nameIndex = new SecondaryIndexes.Names(employeeMap.values());
+        return nameIndex.find(prefix, limit);
+    }
+
+    /** Employees earning between {@code min} and {@code max} inclusive, lowest first, as a read-only view. */
+    public List<Employee> findBySalaryRange(double min, double max) {
+        return salaries().range(min, max);
+    }
+
+    /** The {@code k} highest earners, highest first, as a read-only view. */
+    public List<Employee> getTopEarners(int k) {
+        return salaries().top(k);
+    }
+
+    /** The {@code k} managers with the most direct reports, widest span first, as a read-only view. */
+    public List<Employee> getWidestSpans(int k) {
+        return spans().widest(k);
+    }
+
+    /** Managers with at least {@code reports} direct reports, widest span first, as a read-only view. */
+    public List<Employee> getManagersWithSpanOfAtLeast(int reports) {
+        return spans().atLeast(reports);
+    }
+
+    private SecondaryIndexes.Salaries salaries() {
+        if (salaryIndex == null) salaryIndex = new SecondaryIndexes.Salaries(employeeMap.values());
+        return salaryIndex;
+    }
+
+    private SecondaryIndexes.Spans spans() {
+        if (spanIndex == null) spanIndex = new SecondaryIndexes.Spans(employeeMap.values());
+        return spanIndex;
+    }
+
+    /**
+     * The {@code k}-th manager above {@code id}: 1 is the direct manager, 0 the employee itself.
+     * Empty for unknown ids or when {@code k} reaches past the CEO. O(log depth).
+     */
+    public Optional<Employee> getKthManager(String id, int k) {
+        if (k < 0) throw new IllegalArgumentException("k must be >= 0");
+        int pos = positionOf(id);
+        if (pos < 0) return Optional.empty();
+        int ancestor = ancestors().ancestor(pos, k);
+        return ancestor < 0 ? Optional.empty() : Optional.of(tour.order[ancestor]);
+    }
+
+    /** Managers of {@code id} from the direct manager up to the CEO; empty for the CEO and unknown ids. */
+    public List<Employee> getChainOfCommand(String id) {
+        int pos = positionOf(id);
+        if (pos < 0) return List.of();
+        List<Employee> chain = new ArrayList<>(ancestors().depthAt(pos));
+        for (int p = tour.parent[pos]; p >= 0; p = tour.parent[p]) chain.add(tour.order[p]);
+        return chain;
+    }
+
+    /**
+     * Lowest employee who has both {@code a} and {@code b} in their subtree. That is one of
+     * the two when it manages the other. Empty when either id is unknown. O(log depth).
+     */
+    public Optional<Employee> getLowestCommonManager(String a, String b) {
+        int posA = positionOf(a);
+        int posB = positionOf(b);
+        if (posA < 0 || posB < 0) return Optional.empty();
+        return Optional.of(tour.order[ancestors().lowestCommon(posA, posB)]);
+    }
+
+    /** True when {@code managerId} is a direct or indirect manager of {@code employeeId}. O(1). */
+    public boolean isInReportingLine(String managerId, String employeeId) {
+        int manager = positionOf(managerId);
+        int employee = positionOf(employeeId);
+        return manager >= 0 && employee >= 0 && tour.encloses(manager, employee);
+    }
+
+    /**
+     * Evaluates all {@code ruleSets} in one pass over the hierarchy; see {@link RuleEngine}.
+     * Scoped rule sets must name a loaded employee as their root.
+     */
+    public Map<String, List<Violation>> evaluate(List<RuleSet> ruleSets) {
+        return RuleEngine.evaluate(new RuleEngine.Hierarchy() {
+            @Override
+            public void forEachEmployee(RuleEngine.Visitor visitor) {
+                for (Employee e : employeeMap.values()) {
+                    visitor.visit(e.getId(), e.getSalary(), averageSubordinateSalary(e), managersBetween(e.getId()));
+                }
+            }
+
+            @Override
+            public Predicate<String> subtree(String rootId) {
+                int root = positionOf(rootId);
+                if (root < 0) throw new IllegalArgumentException("Unknown rule set scope '" + rootId + "'");
+                int end = tour.end[root];
+                return id -> {
+                    int pos = tour.positionOf(id);
+                    return pos >= root && pos < end;
+                };
+            }
+        }, ruleSets);
+    }
+
+    private int positionOf(String id) {
+        return ceo == null ? -1 : tour().positionOf(id);
+    }
+
+    private AncestorIndex ancestors() {
+        if (ancestorIndex == null) ancestorIndex = new AncestorIndex(tour());
+        return ancestorIndex;
+    }
+
+    private EulerTour tour() {
+        if (tour == null) tour = EulerTour.of(ceo, employeeMap.size());
+        return tour;
     }
 
     public Employee getCeo() { return ceo; }
+    @Override
     public Optional<Employee> getById(String id) { return Optional.ofNullable(employeeMap.get(id)); }
     public Collection<Employee> getAll() { return Collections.unmodifiableCollection(employeeMap.values()); }
 }
@@ -0,0 +1,215 @@
+package com.company.service;
+
+import com.company.model.Employee;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary image of a validated, linked hierarchy, used to skip CSV parsing and
+ * validation when the source file has not changed.
+ *
+ * Layout (big-endian):
+ * - header: magic {@code "EMPS"}, version, size and CRC32C of the source CSV, employee count, CEO index
+ * - one record per employee in load order: id, firstName, lastName (int length + UTF-8 bytes),
+ *   salary, parent index (-1 for the CEO), reporting depth
+ * - pre-linked child lists in CSR form: {@code count + 1} offsets followed by the child indices
+ *
+ * Snapshots are written to a temp file and moved into place, and read through memory-mapped windows.
+ * Reading checks every index and depth, so a damaged file fails as an {@link IOException}.
+ */
+final class EmployeeSnapshot {
+
+    private static final int MAGIC = 0x454D5053; // "EMPS"
+    private static final int VERSION = 2;
+    private static final long WINDOW = 256L << 20;
+
+    final Employee[] employees;
+    final int[] depths;
+    final int ceo;
+
+    private EmployeeSnapshot(Employee[] employees, int[] depths, int ceo) {
+        this.employees = employees;
+        this.depths = depths;
+        this.ceo = ceo;
+    }
+
+    /** CRC32C of the file contents, read through memory-mapped windows. */
+    static long checksum(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long pos = 0; pos < size; pos += WINDOW) {
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos)));
+            }
+        }
+        return crc.getValue();
+    }
+
+    static void write(Path file, long sourceSize, long checksum, Collection<Employee> employees,
+                      ToIntFunction<Employee> depthOf, Employee ceo) throws IOException {
+        Map<String, Integer> index = new HashMap<>(employees.size() * 2);
+        for (Employee e : employees) index.put(e.getId(), index.size());
+
+        Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(checksum);
+            out.writeInt(employees.size());
+            out.writeInt(index.get(ceo.getId()));
+
+            for (Employee e : employees) {
+                writeString(out, e.getId());
+                writeString(out, e.getFirstName());
+                writeString(out, e.getLastName());
+                out.writeDouble(e.getSalary());
+                out.writeInt(e.getManagerId() == null ? -1 : index.get(e.getManagerId()));
+                out.writeInt(depthOf.applyAsInt(e));
+            }
+
+            int offset = 0;
+            out.writeInt(offset);
+            for (Employee e : employees) {
+                offset += e.getSubordinates().size();
+                out.writeInt(offset);
+            }
+            for (Employee e : employees) {
+                for (Employee s : e.getSubordinates()) out.writeInt(index.get(s.getId()));
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restores the hierarchy if {@code file} was written for a source of {@code sourceSize} bytes
+     * with {@code checksum}; empty when it belongs to a different source. Corrupt files fail with
+     * {@link IOException}.
+     */
+    static Optional<EmployeeSnapshot> read(Path file, long sourceSize, long checksum) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedInput in = new MappedInput(channel);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("Not an employee snapshot: " + file);
+            }
+            if (in.getLong() != sourceSize || in.getLong() != checksum) return Optional.empty();
+
+            int count = in.getInt();
+            int ceo = in.getInt();
+            if (count < 1 || ceo < 0 || ceo >= count) throw corrupt(file, "CEO index " + ceo + " of " + count);
+            String[] ids = new String[count];
+            String[] firstNames = new String[count];
+            String[] lastNames = new String[count];
+            double[] salaries = new double[count];
+            int[] parents = new int[count];
+            int[] depths = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = in.getString();
+                firstNames[i] = in.getString();
+                lastNames[i] = in.getString();
+                salaries[i] = in.getDouble();
+                parents[i] = in.getInt();
+                depths[i] = in.getInt();
+                if (parents[i] < -1 || parents[i] >= count || (parents[i] == -1) != (i == ceo)) {
+                    throw corrupt(file, "parent index " + parents[i] + " of record " + i);
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int expected = i == ceo ? 0 : depths[parents[i]] + 1;
+                if (depths[i] != expected) throw corrupt(file, "depth " + depths[i] + " of record " + i);
+            }
+            Employee[] employees = new Employee[count];
+            for (int i = 0; i < count; i++) {
+                String managerId = parents[i] >= 0 ? ids[parents[i]] : null;
+                employees[i] = new LinkedEmployee(ids[i], firstNames[i], lastNames[i], salaries[i], managerId);
+            }
+
+            int[] offsets = new int[count + 1];
+            for (int i = 0; i <= count; i++) {
+                offsets[i] = in.getInt();
+                if (i == 0 ? offsets[0] != 0 : offsets[i] < offsets[i - 1] || offsets[i] >= count) {
+                    throw corrupt(file, "child offset " + offsets[i] + " of record " + i);
+                }
+            }
+            for (int m = 0; m < count; m++) {
+                for (int c = offsets[m]; c < offsets[m + 1]; c++) {
+                    int child = in.getInt();
+                    if (child < 0 || child >= count || parents[child] != m) {
+                        throw corrupt(file, "child index " + child + " of record " + m);
+                    }
+                    LinkedEmployee.link(employees[m], employees[child]);
+                }
+            }
+            return Optional.of(new EmployeeSnapshot(employees, depths, ceo));
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | NegativeArraySizeException ex) {
+            throw new IOException("Corrupt employee snapshot: " + file, ex);
+        }
+    }
+
+    private static IOException corrupt(Path file, String what) {
+        return new IOException("Corrupt employee snapshot " + file + ": " + what);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /** Sequential reader over a file mapped in windows, so snapshots may exceed 2 GB. */
+    private static final class MappedInput {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        int getInt() throws IOException { ensure(Integer.BYTES); return window.getInt(); }
+        long getLong() throws IOException { ensure(Long.BYTES); return window.getLong(); }
+        double getDouble() throws IOException { ensure(Double.BYTES); return window.getDouble(); }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0 || length > WINDOW) throw new IOException("Corrupt string length " + length);
+            ensure(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (window.remaining() >= bytes) return;
+            long pos = windowStart + window.position();
+            if (pos + bytes > size) throw new IOException("Truncated employee snapshot");
+            map(pos);
+        }
+
+        private void map(long pos) throws IOException {
+            windowStart = pos;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW, size - pos));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.service;
+
+import com.company.model.Employee;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Preorder (Euler tour) numbering of a linked hierarchy. Every employee gets a position, and
+ * the subtree rooted at position {@code i} is exactly the range {@code [i, end[i])}, so subtree
+ * questions become range questions over flat arrays. Children are visited in subordinate order.
+ */
+final class EulerTour {
+
+    final Employee[] order;
+    final int[] end;
+    final int[] parent; // -1 for the CEO
+    private final Map<String, Integer> positions;
+
+    private EulerTour(Employee[] order, int[] end, int[] parent, Map<String, Integer> positions) {
+        this.order = order;
+        this.end = end;
+        this.parent = parent;
+        this.positions = positions;
+    }
+
+    /** Tour of the hierarchy under {@code ceo}; a null CEO (nothing loaded) gives an empty tour. */
+    static EulerTour of(Employee ceo, int size) {
+        if (ceo == null) size = 0;
+        Employee[] order = new Employee[size];
+        int[] parent = new int[size];
+        Map<String, Integer> positions = new HashMap<>(size * 2);
+
+        Employee[] stack = new Employee[size];
+        int[] stackParent = new int[size];
+        int top = 0;
+        if (ceo != null) {
+            stack[top] = ceo;
+            stackParent[top++] = -1;
+        }
+        int next = 0;
+        while (top > 0) {
+            Employee e = stack[--top];
+            int pos = next++;
+            order[pos] = e;
+            parent[pos] = stackParent[top];
+            positions.put(e.getId(), pos);
+            for (int k = e.getSubordinates().size() - 1; k >= 0; k--) {
+                stack[top] = e.getSubordinates().get(k);
+                stackParent[top++] = pos;
+            }
+        }
+
+        int[] end = new int[size];
+        int[] subtreeSize = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            subtreeSize[i]++;
+            end[i] = i + subtreeSize[i];
+            if (parent[i] >= 0) subtreeSize[parent[i]] += subtreeSize[i];
+        }
+        return new EulerTour(order, end, parent, positions);
+    }
+
+    int size() { return order.length; }
+
+    /** True when position {@code b} lies strictly inside the subtree rooted at {@code a}. */
+    boolean encloses(int a, int b) {
+        return a < b && b < end[a];
+    }
+
+    /** Preorder position of {@code id}, or -1 when it is not in the hierarchy. */
+    int positionOf(String id) {
+        Integer pos = positions.get(id);
+        return pos == null ? -1 : pos;
+    }
+}
@@ -0,0 +1,141 @@
+package com.company.service;
+
+import com.company.model.Employee;
+import com.company.model.HierarchyDiff;
+import com.company.model.Violation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Linear-time diff of two loaded hierarchies, e.g. last month's and this month's files.
+ *
+ * Both sides get a Merkle hash per subtree: each employee's id, name, salary and manager are
+ * hashed and combined with the hashes of their subordinates' subtrees (order-insensitively, since
+ * file order carries no meaning). Each side is then walked top-down in preorder. When an id's
+ * subtree hash matches on both sides the whole subtree is skipped in one jump, so only changed
+ * areas are compared employee by employee. Hashes are 64-bit; a collision, which would hide a
+ * change, is vanishingly unlikely.
+ *
+ * Violations are compared by employee and kind over both sides' full results. A side with
+ * nothing loaded counts as an empty organisation, so everyone on the other side is a hire or a
+ * leaver.
+ */
+public final class HierarchyDiffer {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private HierarchyDiffer() {}
+
+    /** Diffs {@code before} against {@code after}; reporting lines are checked against {@code limit}. */
+    public static HierarchyDiff diff(EmployeeService before, EmployeeService after, int limit) {
+        EulerTour old = EulerTour.of(before.getCeo(), before.getEmployees().size());
+        EulerTour now = EulerTour.of(after.getCeo(), after.getEmployees().size());
+        long[] oldHashes = subtreeHashes(old);
+        long[] newHashes = subtreeHashes(now);
+
+        List<Employee> hires = new ArrayList<>();
+        List<HierarchyDiff.SalaryChange> salaryChanges = new ArrayList<>();
+        List<HierarchyDiff.ManagerMove> moves = new ArrayList<>();
+        for (int i = 0; i < now.size(); ) {
+            Employee e = now.order[i];
+            int j = old.positionOf(e.getId());
+            if (j >= 0 && oldHashes[j] == newHashes[i]) {
+                i = now.end[i];
+                continue;
+            }
+            if (j < 0) {
+                hires.add(e);
+            } else {
+                Employee was = old.order[j];
+                if (Double.compare(was.getSalary(), e.getSalary()) != 0) {
+                    salaryChanges.add(new HierarchyDiff.SalaryChange(e.getId(), was.getSalary(), e.getSalary()));
+                }
+                if (!Objects.equals(was.getManagerId(), e.getManagerId())) {
+                    moves.add(new HierarchyDiff.ManagerMove(e.getId(), was.getManagerId(), e.getManagerId()));
+                }
+            }
+            i++;
+        }
+
+        List<Employee> leavers = new ArrayList<>();
+        for (int j = 0; j < old.size(); ) {
+            int i = now.positionOf(old.order[j].getId());
+            if (i >= 0 && newHashes[i] == oldHashes[j]) {
+                j = old.end[j];
+                continue;
+            }
+            if (i < 0) leavers.add(old.order[j]);
+            j++;
+        }
+
+        List<Violation> oldViolations = violations(before, limit);
+        List<Violation> newViolations = violations(after, limit);
+        return new HierarchyDiff(hires, leavers, salaryChanges, moves,
+                missingFrom(oldViolations, newViolations), missingFrom(newViolations, oldViolations));
+    }
+
+    /** Hash of every subtree, by preorder position; reverse preorder sees children before parents. */
+    private static long[] subtreeHashes(EulerTour tour) {
+        int n = tour.size();
+        long[] hashes = new long[n];
+        long[] childSums = new long[n];
+        for (int i = n - 1; i >= 0; i--) {
+            hashes[i] = mix(contentHash(tour.order[i]) + 0x9E3779B97F4A7C15L * childSums[i]);
+            if (tour.parent[i] >= 0) childSums[tour.parent[i]] += hashes[i];
+        }
+        return hashes;
+    }
+
+    private static long contentHash(Employee e) {
+        long h = FNV_OFFSET;
+        h = fnv(h, e.getId());
+        h = fnv(h, e.getFirstName());
+        h = fnv(h, e.getLastName());
+        h = fnv(h, e.getManagerId() == null ? "" : e.getManagerId());
+        return (h ^ Double.doubleToLongBits(e.getSalary())) * FNV_PRIME;
+    }
+
+    private static long fnv(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        // separator, so ("ab", "c") and ("a", "bc") differ
+        return (h ^ 0x1F) * FNV_PRIME;
+    }
+
+    /** MurmurHash3's 64-bit finalizer. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static List<Violation> violations(EmployeeService svc, int limit) {
+        List<Violation> all = new ArrayList<>();
+        svc.forEachSalaryViolation(all::add);
+        svc.forEachReportingLineViolation(limit, all::add);
+        return all;
+    }
+
+    /** Entries of {@code present} whose employee and kind do not occur in {@code reference}. */
+    private static List<Violation> missingFrom(List<Violation> reference, List<Violation> present) {
+        Set<String> keys = new HashSet<>(reference.size() * 2);
+        for (Violation v : reference) keys.add(key(v));
+        List<Violation> missing = new ArrayList<>();
+        for (Violation v : present) {
+            if (!keys.contains(key(v))) missing.add(v);
+        }
+        return missing;
+    }
+
+    private static String key(Violation v) {
+        return v.kind() + ":" + v.employeeId();
+    }
+}
@@ -0,0 +1,90 @@
+package com.company.service;
+
+/**
+ * Maps employee id strings to dense ints {@code 0..size-1} in insertion order.
+ * Open addressing over an int column avoids the per-entry node and boxed {@code Integer}
+ * a {@code HashMap<String, Integer>} would allocate. Ids, their hashes and the table live in
+ * {@link ColumnStorage} columns, so the whole index can sit off-heap; stored hashes let the
+ * table grow without decoding ids again.
+ */
+final class IdInterner {
+
+    /** Largest power-of-two table an int can index; at half load it holds 2^29 ids. */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final ColumnStorage storage;
+    private final ColumnStorage.StringColumn ids;
+    private final ColumnStorage.IntColumn hashes;
+    private ColumnStorage.IntColumn table; // slot -> index + 1, 0 = empty
+    private int capacity = 32;
+    private int size;
+
+    IdInterner() {
+        this(ColumnStorage.heap());
+    }
+
+    IdInterner(ColumnStorage storage) {
+        this.storage = storage;
+        this.ids = storage.strings();
+        this.hashes = storage.ints();
+        this.table = storage.ints();
+    }
+
+    int size() { return size; }
+
+    String idAt(int index) { return ids.get(index); }
+
+    /** Dense index of {@code id}, or -1 if it was never added. */
+    int indexOf(String id) {
+        int h = hash(id);
+        int mask = capacity - 1;
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            int entry = table.get(slot);
+            if (entry == 0) return -1;
+            if (hashes.get(entry - 1) == h && ids.matches(entry - 1, id)) return entry - 1;
+        }
+    }
+
+    /** Adds {@code id} and returns its new index, or -1 if it is already present. */
+    int add(String id) {
+        if (indexOf(id) >= 0) return -1;
+        if ((size + 1L) * 2 > capacity) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalStateException("Too many distinct ids: at most " + MAX_CAPACITY / 2 + " are supported");
+            }
+            rehash(capacity * 2);
+        }
+        int h = hash(id);
+        ids.append(id);
+        hashes.set(size, h);
+        insert(size, h);
+        return size++;
+    }
+
+    void release() {
+        ids.release();
+        hashes.release();
+        table.release();
+    }
+
+    private void insert(int index, int h) {
+        int mask = capacity - 1;
+        int slot = h & mask;
+        while (table.get(slot) != 0) slot = (slot + 1) & mask;
+        table.set(slot, index + 1);
+    }
+
+    /** Rebuilds the table; the old one is released so paged storage can reuse its pages next time. */
+    private void rehash(int newCapacity) {
+        ColumnStorage.IntColumn old = table;
+        table = storage.ints();
+        capacity = newCapacity;
+        for (int i = 0; i < size; i++) insert(i, hashes.get(i));
+        old.release();
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,29 @@
+package com.company.service;
+
+import com.company.model.Employee;
+
+import java.util.List;
+
+/**
+ * An {@link Employee} created by {@link EmployeeServiceImpl} or one of its loaders. Only the
+ * service links subordinates to it, while a hierarchy is being built and before the object is
+ * handed out; after that a change replaces the employee instead of editing it.
+ */
+final class LinkedEmployee extends Employee {
+
+    LinkedEmployee(String id, String firstName, String lastName, double salary, String managerId) {
+        super(id, firstName, lastName, salary, managerId);
+    }
+
+    /** Links {@code subordinate} under {@code manager}, which must have been created by the service. */
+    static void link(Employee manager, Employee subordinate) {
+        ((LinkedEmployee) manager).addSubordinate(subordinate);
+    }
+
+    /** A new employee with {@code e}'s id and name, the given salary and manager, and {@code subordinates}. */
+    static LinkedEmployee copyOf(Employee e, double salary, String managerId, List<Employee> subordinates) {
+        LinkedEmployee copy = new LinkedEmployee(e.getId(), e.getFirstName(), e.getLastName(), salary, managerId);
+        for (Employee s : subordinates) copy.addSubordinate(s);
+        return copy;
+    }
+}
@@ -0,0 +1,139 @@
+package com.company.service;
+
+import com.company.metrics.LoadEvent;
+import com.company.metrics.LoadMetrics;
+import com.company.metrics.LoadPhaseEvent;
+import com.company.metrics.MetricsListener;
+import com.company.metrics.Phase;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Collects the metrics of one load and publishes them as JFR events and to a {@link MetricsListener}.
+ *
+ * Coarse phases (linking, a whole parallel parse) are always timed. Read, parse and row validation
+ * alternate for every row, so they are only timed when {@code detailed} is set; otherwise
+ * {@link #mark()} and the row methods do nothing but count bytes, keeping the hot loop free of clock reads.
+ */
+final class LoadProbe {
+
+    private final String source;
+    private final MetricsListener listener;
+    private final boolean detailed;
+    private final LoadEvent event = new LoadEvent();
+    private final long start;
+    private final long allocatedAtStart;
+    private final long[] nanos = new long[Phase.values().length];
+    private long bytes;
+    private long checkNanos;
+
+    LoadProbe(String source, MetricsListener listener, boolean detailed) {
+        this.source = source;
+        this.listener = listener;
+        this.detailed = detailed;
+        this.allocatedAtStart = allocatedBytes();
+        event.begin();
+        this.start = System.nanoTime();
+    }
+
+    static LoadProbe disabled() {
+        return new LoadProbe("reader", MetricsListener.NONE, false);
+    }
+
+    /** True while a JFR recording has {@link LoadPhaseEvent} switched on. */
+    static boolean phaseEventsEnabled() {
+        return new LoadPhaseEvent().isEnabled();
+    }
+
+    long mark() {
+        return detailed ? System.nanoTime() : 0;
+    }
+
+    /** Books a {@code readLine} that started at {@code since}. */
+    void read(long since, String line) {
+        if (line != null) bytes += line.length() + 1;
+        if (detailed) nanos[Phase.READ.ordinal()] += System.nanoTime() - since;
+    }
+
+    /** Wraps the duplicate check so its time counts as {@link Phase#VALIDATE_ROW}, not parsing. */
+    <T> Predicate<T> validating(Predicate<T> check) {
+        if (!detailed) return check;
+        return value -> {
+            long t = System.nanoTime();
+            try {
+                return check.test(value);
+            } finally {
+                checkNanos += System.nanoTime() - t;
+            }
+        };
+    }
+
+    /** Books the parse of one row that started at {@code since}; returns a new mark. */
+    long parsed(long since) {
+        if (!detailed) return 0;
+        long now = System.nanoTime();
+        nanos[Phase.PARSE.ordinal()] += now - since - checkNanos;
+        nanos[Phase.VALIDATE_ROW.ordinal()] += checkNanos;
+        checkNanos = 0;
+        return now;
+    }
+
+    /** Per-row booking; ignored unless detailed. */
+    void add(Phase phase, long since) {
+        if (detailed) nanos[phase.ordinal()] += System.nanoTime() - since;
+    }
+
+    /** Books a coarse phase measured by the caller. */
+    void record(Phase phase, long elapsed) {
+        nanos[phase.ordinal()] += elapsed;
+    }
+
+    /** Replaces the character count with the exact size of the source. */
+    void bytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    LoadMetrics finish(long rows) {
+        long total = System.nanoTime() - start;
+        long allocated = allocatedAtStart < 0 ? -1 : allocatedBytes() - allocatedAtStart;
+
+        Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            if (nanos[phase.ordinal()] > 0) phases.put(phase, nanos[phase.ordinal()]);
+        }
+        LoadMetrics metrics = new LoadMetrics(source, rows, bytes, allocated, phases, total);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.rows = rows;
+            event.bytes = bytes;
+            event.allocated = allocated;
+            event.rowsPerSecond = metrics.rowsPerSecond();
+            event.commit();
+        }
+        phases.forEach((phase, elapsed) -> {
+            LoadPhaseEvent phaseEvent = new LoadPhaseEvent();
+            if (phaseEvent.shouldCommit()) {
+                phaseEvent.phase = phase.name();
+                phaseEvent.elapsed = elapsed;
+                phaseEvent.rows = rows;
+                phaseEvent.commit();
+            }
+        });
+        listener.onLoad(metrics);
+        return metrics;
+    }
+
+    /** Bytes allocated so far by the current thread, or -1 when the JVM does not track it. */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
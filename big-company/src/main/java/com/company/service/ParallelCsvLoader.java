@@ -0,0 +1,199 @@
+package com.company.service;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Employee;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Splits a CSV file into newline-aligned byte ranges, memory-maps each range and parses
+ * the rows of all ranges concurrently on a dedicated {@link ForkJoinPool}.
+ *
+ * Chunks are handed to the caller strictly in file order, so merging (duplicate-id
+ * detection and global line numbering) stays deterministic regardless of which chunk
+ * finishes first. A chunk stops at its first bad row and keeps the raw text of that row
+ * so the caller can re-parse it with the correct global line number.
+ *
+ * Rows are decoded as UTF-8 and terminated by {@code \n}, {@code \r\n} or a bare {@code \r}, the
+ * same terminators {@link java.io.BufferedReader#readLine()} accepts, so line numbers match the
+ * sequential loader. Decoding is strict like the sequential path: invalid UTF-8 fails the load
+ * with a {@link java.nio.charset.MalformedInputException}. Once the pool is shut down after a
+ * failure, workers notice the interrupt at their next row and stop.
+ */
+final class ParallelCsvLoader {
+
+    static final long MIN_CHUNK_BYTES = 1L << 20;
+    static final long MAX_CHUNK_BYTES = 256L << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int parallelism;
+    private final long chunkBytes;
+
+    @FunctionalInterface
+    interface ChunkConsumer {
+        void accept(Chunk chunk) throws ValidationException;
+    }
+
+    /** Result of parsing one byte range; line numbers are local to the chunk, starting at 0. */
+    static final class Chunk {
+        private final List<Employee> employees = new ArrayList<>();
+        private int[] lines = new int[64];
+        private int lineCount;
+        private String failedLine;
+        private int failedAt;
+
+        List<Employee> employees() { return employees; }
+        int lineAt(int index) { return lines[index]; }
+        int lineCount() { return lineCount; }
+        String failedLine() { return failedLine; }
+        int failedAt() { return failedAt; }
+
+        private void add(Employee e, int line) {
+            if (employees.size() == lines.length) lines = Arrays.copyOf(lines, lines.length * 2);
+            lines[employees.size()] = line;
+            employees.add(e);
+        }
+    }
+
+    ParallelCsvLoader(int parallelism, long chunkBytes) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+        if (chunkBytes < 1) throw new IllegalArgumentException("chunkBytes must be >= 1");
+        this.parallelism = parallelism;
+        this.chunkBytes = Math.min(chunkBytes, MAX_CHUNK_BYTES);
+    }
+
+    /** Chunk size giving every worker a few ranges to balance uneven rows. */
+    static long chunkSizeFor(Path path, int parallelism) throws IOException {
+        long target = Files.size(path) / ((long) Math.max(1, parallelism) * CHUNKS_PER_THREAD);
+        return Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, target));
+    }
+
+    void load(Path path, ChunkConsumer consumer) throws IOException, ValidationException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) throw new ValidationException("CSV file is empty");
+
+            List<long[]> ranges = split(channel, nextLineStart(channel, 0), size);
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<Future<Chunk>> futures = new ArrayList<>(ranges.size());
+                for (long[] range : ranges) {
+                    futures.add(pool.submit(() -> parse(channel, range[0], range[1])));
+                }
+                for (Future<Chunk> future : futures) {
+                    consumer.accept(await(future));
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private List<long[]> split(FileChannel channel, long from, long size) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        long start = from;
+        while (start < size) {
+            long end = start + chunkBytes >= size ? size : nextLineStart(channel, start + chunkBytes);
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    /** Position just after the first line terminator at or after {@code pos}, or the file size. */
+    private static long nextLineStart(FileChannel channel, long pos) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long size = channel.size();
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                byte b = buf.get(i);
+                if (b == '\n') return pos + i + 1;
+                if (b == '\r') {
+                    long next = pos + i + 1;
+                    return next < size && byteAt(channel, next) == '\n' ? next + 1 : next; // \r\n ends one line
+                }
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    private static byte byteAt(FileChannel channel, long pos) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        return channel.read(one, pos) == 1 ? one.get(0) : -1;
+    }
+
+    private static Chunk parse(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        Chunk chunk = new Chunk();
+        byte[] scratch = new byte[256];
+        CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        int limit = buf.limit();
+        int lineStart = 0;
+
+        for (int pos = 0; pos <= limit; pos++) {
+            byte b = pos == limit ? 0 : buf.get(pos);
+            boolean eol = pos == limit || b == '\n' || b == '\r';
+            if (!eol) continue;
+            if (pos == limit && pos == lineStart) break; // no trailing partial line
+            if (Thread.currentThread().isInterrupted()) throw new InterruptedIOException("Load cancelled");
+
+            int len = pos - lineStart;
+            if (len > scratch.length) scratch = new byte[Math.max(len, scratch.length * 2)];
+            buf.get(lineStart, scratch, 0, len);
+            String line = utf8.decode(ByteBuffer.wrap(scratch, 0, len)).toString();
+            int lineNo = chunk.lineCount++;
+            if (b == '\r' && pos + 1 < limit && buf.get(pos + 1) == '\n') pos++; // \r\n ends one line
+            lineStart = pos + 1;
+
+            if (line.isBlank()) continue;
+            try {
+                chunk.add(CsvRowParser.parse(line, lineNo, id -> false, LinkedEmployee::new), lineNo);
+            } catch (ValidationException ex) {
+                chunk.failedLine = line;
+                chunk.failedAt = lineNo;
+                break;
+            }
+        }
+        return chunk;
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            // ForkJoinPool wraps a Callable's checked exceptions in RuntimeExceptions, so dig out
+            // the worker's IOException (e.g. MalformedInputException) to rethrow it unchanged
+            for (Throwable t = cause; t != null; t = t.getCause()) {
+                if (t instanceof IOException io) throw io;
+            }
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException(cause);
+        }
+    }
+}
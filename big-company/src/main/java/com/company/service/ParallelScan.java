@@ -0,0 +1,101 @@
+package com.company.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Fork-join helpers for scanning a random-access list in index ranges.
+ *
+ * Every leaf writes only to its own output, and results are stitched together left to right,
+ * so the merged output is in exactly the order a sequential loop would produce.
+ */
+final class ParallelScan {
+
+    static final int LEAF_SIZE = 2048;
+
+    @FunctionalInterface
+    interface Visitor<E, T> {
+        void visit(E item, List<T> out);
+    }
+
+    private ParallelScan() {}
+
+    /** Visits every item; whatever the visitor emits is returned in item order. */
+    static <E, T> List<T> collect(ForkJoinPool pool, List<E> items, Visitor<E, T> visitor) {
+        return pool.invoke(new CollectTask<>(items, 0, items.size(), visitor));
+    }
+
+    /** Maps every item into the slot with the same index. */
+    static <E, T> List<T> map(ForkJoinPool pool, List<E> items, Function<E, T> mapper) {
+        Object[] out = new Object[items.size()];
+        pool.invoke(new MapTask<>(items, 0, items.size(), mapper, out));
+        @SuppressWarnings("unchecked")
+        List<T> result = (List<T>) Arrays.asList(out);
+        return new ArrayList<>(result);
+    }
+
+    private static final class CollectTask<E, T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<E> items;
+        private final int from;
+        private final int to;
+        private final Visitor<E, T> visitor;
+
+        CollectTask(List<E> items, int from, int to, Visitor<E, T> visitor) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.visitor = visitor;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= LEAF_SIZE) {
+                List<T> out = new ArrayList<>();
+                for (int i = from; i < to; i++) visitor.visit(items.get(i), out);
+                return out;
+            }
+            int mid = (from + to) >>> 1;
+            CollectTask<E, T> left = new CollectTask<>(items, from, mid, visitor);
+            left.fork();
+            List<T> right = new CollectTask<>(items, mid, to, visitor).compute();
+            List<T> out = left.join();
+            out.addAll(right);
+            return out;
+        }
+    }
+
+    private static final class MapTask<E, T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<E> items;
+        private final int from;
+        private final int to;
+        private final Function<E, T> mapper;
+        private final Object[] out;
+
+        MapTask(List<E> items, int from, int to, Function<E, T> mapper, Object[] out) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.mapper = mapper;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) out[i] = mapper.apply(items.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MapTask<>(items, from, mid, mapper, out), new MapTask<>(items, mid, to, mapper, out));
+        }
+    }
+}
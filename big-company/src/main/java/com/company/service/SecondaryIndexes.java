@@ -0,0 +1,167 @@
+package com.company.service;
+
+import com.company.model.Employee;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Read-side indexes over a linked hierarchy, each a sorted array built in O(n log n) and queried
+ * by binary search. Results are read-only views over the arrays, so queries never copy the
+ * employee set; they are only valid until the owning service rebuilds the index.
+ */
+final class SecondaryIndexes {
+
+    private SecondaryIndexes() {}
+
+    /** Case-insensitive prefix search over full names ("first last") and last names. */
+    static final class Names {
+        private final String[] keys;
+        private final Employee[] owners;
+
+        Names(Collection<Employee> employees) {
+            Entry[] entries = new Entry[2 * employees.size()];
+            int i = 0;
+            for (Employee e : employees) {
+                entries[i++] = new Entry(normalize(e.getFullName()), e);
+                entries[i++] = new Entry(normalize(e.getLastName()), e);
+            }
+            // stable, so employees sharing a key keep their load order
+            Arrays.sort(entries, Comparator.comparing(Entry::key));
+            keys = new String[entries.length];
+            owners = new Employee[entries.length];
+            for (int k = 0; k < entries.length; k++) {
+                keys[k] = entries[k].key();
+                owners[k] = entries[k].owner();
+            }
+        }
+
+        private record Entry(String key, Employee owner) {}
+
+        /** Up to {@code limit} employees whose full or last name starts with {@code prefix}, by name. */
+        List<Employee> find(String prefix, int limit) {
+            String p = normalize(prefix);
+            Set<Employee> found = new LinkedHashSet<>();
+            for (int i = lowerBound(p); i < keys.length && found.size() < limit && keys[i].startsWith(p); i++) {
+                found.add(owners[i]);
+            }
+            return List.copyOf(found);
+        }
+
+        private int lowerBound(String key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private static String normalize(String s) {
+            return s.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Employees ordered by salary (ties by id) for range and top-K queries. */
+    static final class Salaries {
+        private final Employee[] sorted;
+
+        Salaries(Collection<Employee> employees) {
+            sorted = employees.toArray(new Employee[0]);
+            Arrays.sort(sorted, Comparator.comparingDouble(Employee::getSalary).thenComparing(Employee::getId));
+        }
+
+        /** Everyone earning between {@code min} and {@code max}, inclusive, lowest first. */
+        List<Employee> range(double min, double max) {
+            int from = firstAbove(min, false);
+            int to = firstAbove(max, true);
+            return from < to ? new Slice(sorted, from, to, false) : List.of();
+        }
+
+        /** The {@code k} highest earners, highest first. */
+        List<Employee> top(int k) {
+            int from = Math.max(0, sorted.length - Math.max(0, k));
+            return new Slice(sorted, from, sorted.length, true);
+        }
+
+        /** First index with salary {@code > bound} ({@code inclusive}) or {@code >= bound} (otherwise). */
+        private int firstAbove(double bound, boolean inclusive) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                double s = sorted[mid].getSalary();
+                if (s < bound || (inclusive && s == bound)) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /** Managers ordered by span of control, i.e. their number of direct reports. */
+    static final class Spans {
+        private final Employee[] sorted; // widest first
+
+        Spans(Collection<Employee> employees) {
+            List<Employee> managers = new ArrayList<>();
+            for (Employee e : employees) {
+                if (!e.getSubordinates().isEmpty()) managers.add(e);
+            }
+            sorted = managers.toArray(new Employee[0]);
+            Arrays.sort(sorted, Comparator.comparingInt((Employee e) -> e.getSubordinates().size()).reversed()
+                    .thenComparing(Employee::getId));
+        }
+
+        /** The {@code k} managers with the most direct reports, widest first. */
+        List<Employee> widest(int k) {
+            return new Slice(sorted, 0, Math.min(sorted.length, Math.max(0, k)), false);
+        }
+
+        /** Managers with at least {@code reports} direct reports, widest first. */
+        List<Employee> atLeast(int reports) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid].getSubordinates().size() >= reports) lo = mid + 1;
+                else hi = mid;
+            }
+            return new Slice(sorted, 0, lo, false);
+        }
+    }
+
+    /** Read-only window {@code [from, to)} over an index array, optionally reversed. */
+    private static final class Slice extends AbstractList<Employee> implements RandomAccess {
+        private final Employee[] array;
+        private final int from;
+        private final int to;
+        private final boolean reversed;
+
+        Slice(Employee[] array, int from, int to, boolean reversed) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.reversed = reversed;
+        }
+
+        @Override
+        public Employee get(int index) {
+            Objects.checkIndex(index, size());
+            return array[reversed ? to - 1 - index : from + index];
+        }
+
+        @Override
+        public int size() { return to - from; }
+    }
+}
@@ -0,0 +1,150 @@
+package com.company.service;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Employee;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads one hierarchy split across several CSV files ("shards", e.g. one per region), where
+ * managers may sit in a different shard than their reports.
+ *
+ * Shards are parsed concurrently on a dedicated {@link ForkJoinPool}, each plain or gzip-compressed.
+ * Row checks and in-shard duplicate ids run per shard. {@link #merge} then combines the shards in
+ * the given order and runs the checks that need all of them: duplicate ids across shards, a
+ * single CEO, and managers that exist somewhere. All errors start with the shard's path and give
+ * the line within that shard, so the first failing shard in list order is the one reported.
+ */
+final class ShardedCsvLoader {
+
+    private final int parallelism;
+
+    /** Rows of one shard with their line numbers (data rows from 1, as in the sequential loader). */
+    static final class Shard {
+        private final Path path;
+        private final List<Employee> employees = new ArrayList<>();
+        private int[] lines = new int[64];
+
+        Shard(Path path) {
+            this.path = path;
+        }
+
+        List<Employee> employees() { return employees; }
+        int lineAt(int index) { return lines[index]; }
+
+        private void add(Employee e, int line) {
+            if (employees.size() == lines.length) lines = Arrays.copyOf(lines, lines.length * 2);
+            lines[employees.size()] = line;
+            employees.add(e);
+        }
+    }
+
+    ShardedCsvLoader(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+        this.parallelism = parallelism;
+    }
+
+    /** Parses all shards; the result is in the order of {@code paths}. */
+    List<Shard> load(List<Path> paths) throws IOException, ValidationException {
+        if (paths.isEmpty()) throw new ValidationException("No shards given");
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, paths.size()));
+        try {
+            List<Future<Shard>> futures = new ArrayList<>(paths.size());
+            for (Path path : paths) {
+                futures.add(pool.submit(() -> parse(path)));
+            }
+            List<Shard> shards = new ArrayList<>(paths.size());
+            for (int i = 0; i < futures.size(); i++) {
+                shards.add(await(futures.get(i), paths.get(i)));
+            }
+            return shards;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Adds every shard's employees to {@code into} and checks ids, the CEO and managers across shards. */
+    static void merge(List<Shard> shards, Map<String, Employee> into) throws ValidationException {
+        for (Shard shard : shards) {
+            for (int i = 0; i < shard.employees.size(); i++) {
+                Employee e = shard.employees.get(i);
+                if (into.putIfAbsent(e.getId(), e) != null) {
+                    throw new ValidationException(shard.path + ": Duplicate id '" + e.getId() + "' at line "
+                            + shard.lineAt(i) + ", already in " + locate(shards, e.getId()));
+                }
+            }
+        }
+
+        Shard ceoShard = null;
+        int ceoLine = 0;
+        for (Shard shard : shards) {
+            for (int i = 0; i < shard.employees.size(); i++) {
+                Employee e = shard.employees.get(i);
+                if (e.getManagerId() == null) {
+                    if (ceoShard != null) {
+                        throw new ValidationException(shard.path + ": Multiple CEOs detected at line " + shard.lineAt(i)
+                                + ", CEO already in " + ceoShard.path + " at line " + ceoLine);
+                    }
+                    ceoShard = shard;
+                    ceoLine = shard.lineAt(i);
+                } else if (!into.containsKey(e.getManagerId())) {
+                    throw new ValidationException(shard.path + ": Unknown manager '" + e.getManagerId()
+                            + "' for employee " + e.getId() + " at line " + shard.lineAt(i));
+                }
+            }
+        }
+        if (ceoShard == null) {
+            throw new ValidationException("No CEO found in any shard");
+        }
+    }
+
+    private static Shard parse(Path path) throws IOException, ValidationException {
+        Shard shard = new Shard(path);
+        Set<String> seen = new HashSet<>();
+        CsvRowParser.readRows(CsvInput.open(path), (line, lineNo) -> {
+            Employee e = CsvRowParser.parse(line, lineNo, seen::contains, LinkedEmployee::new);
+            seen.add(e.getId());
+            shard.add(e, lineNo);
+        });
+        return shard;
+    }
+
+    /** First place {@code id} occurs, as {@code "<shard> at line <n>"}. */
+    private static String locate(List<Shard> shards, String id) {
+        for (Shard shard : shards) {
+            for (int i = 0; i < shard.employees.size(); i++) {
+                if (shard.employees.get(i).getId().equals(id)) return shard.path + " at line " + shard.lineAt(i);
+            }
+        }
+        throw new IllegalStateException("Id " + id + " not in any shard");
+    }
+
+    private static Shard await(Future<Shard> future, Path path) throws IOException, ValidationException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            // ForkJoinPool wraps a callable's checked exception in plain RuntimeExceptions
+            while (cause.getClass() == RuntimeException.class && cause.getCause() != null) cause = cause.getCause();
+            if (cause instanceof ValidationException ve) throw new ValidationException(path + ": " + ve.getMessage());
+            if (cause instanceof IOException io) throw new IOException(path + ": " + io.getMessage(), io);
+            if (cause instanceof UncheckedIOException io) throw new IOException(path + ": " + io.getMessage(), io.getCause());
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.company.service;
+
+import com.company.model.SubtreeStats;
+
+/**
+ * Constant-time subtree aggregates over an {@link EulerTour}: headcount is the width of the
+ * tour range, payroll a difference of prefix sums, and min/max salary are folded bottom-up
+ * once per position. Building is O(n).
+ */
+final class SubtreeIndex {
+
+    private final EulerTour tour;
+    private final double[] payrollPrefix;
+    private final double[] min;
+    private final double[] max;
+
+    SubtreeIndex(EulerTour tour) {
+        int n = tour.size();
+        this.tour = tour;
+        this.payrollPrefix = new double[n + 1];
+        this.min = new double[n];
+        this.max = new double[n];
+        for (int i = 0; i < n; i++) {
+            double salary = tour.order[i].getSalary();
+            payrollPrefix[i + 1] = payrollPrefix[i] + salary;
+            min[i] = salary;
+            max[i] = salary;
+        }
+        // reverse preorder sees every child before its parent
+        for (int i = n - 1; i > 0; i--) {
+            int p = tour.parent[i];
+            if (min[i] < min[p]) min[p] = min[i];
+            if (max[i] > max[p]) max[p] = max[i];
+        }
+    }
+
+    /** Stats for the subtree rooted at preorder position {@code pos}. */
+    SubtreeStats statsAt(int pos) {
+        int end = tour.end[pos];
+        return new SubtreeStats(end - pos, payrollPrefix[end] - payrollPrefix[pos], min[pos], max[pos]);
+    }
+}
@@ -0,0 +1,34 @@
+package com.company.service;
+
+import com.company.metrics.MetricsListener;
+import com.company.metrics.Phase;
+import com.company.metrics.ValidationEvent;
+import com.company.metrics.ValidationMetrics;
+
+/** Times one full validation scan and publishes it as a JFR event and to a {@link MetricsListener}. */
+final class ValidationProbe {
+
+    private final Phase phase;
+    private final MetricsListener listener;
+    private final ValidationEvent event = new ValidationEvent();
+    private final long start;
+
+    ValidationProbe(Phase phase, MetricsListener listener) {
+        this.phase = phase;
+        this.listener = listener;
+        event.begin();
+        this.start = System.nanoTime();
+    }
+
+    ValidationMetrics finish(long violations) {
+        ValidationMetrics metrics = new ValidationMetrics(phase, violations, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.violations = violations;
+            event.commit();
+        }
+        listener.onValidation(metrics);
+        return metrics;
+    }
+}
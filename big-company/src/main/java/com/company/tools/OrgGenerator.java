@@ -0,0 +1,340 @@
+package com.company.tools;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Streams synthetic {@code Id,firstName,lastName,salary,managerId} files of any size for load
+ * and scale testing. Output is fully determined by the seed.
+ *
+ * The org is built breadth-first: each manager takes a number of reports drawn from the fan-out
+ * distribution, and employees at {@code maxDepth} get none. When the tree cannot grow any further,
+ * the remaining rows are spread round-robin over the managers above {@code maxDepth}. Only the
+ * level boundaries are remembered, so memory stays flat however many rows are written.
+ *
+ * Salaries fall by {@code levelRatio} per level (1.35 keeps managers inside the 120%-150% band),
+ * with a little noise. A share of employees given by {@code violationRate} is paid 20% under or
+ * 25% over their level, which roughly makes them underpaid or overpaid managers. At
+ * {@code errorRate} per row an extra bad row is injected: a duplicate id, an unknown manager, or
+ * a pair of employees managing each other.
+ *
+ * With {@code shuffle} the rows are spread over temporary bucket files that are shuffled one
+ * at a time, so at most {@code bucketRows} rows are held in memory. The buckets go to a fresh
+ * directory under {@code tmpDir}, or the system temp directory when none is given, and are
+ * deleted afterwards.
+ */
+public class OrgGenerator {
+
+    public static final String HEADER = "Id,firstName,lastName,salary,managerId";
+
+    private static final String USAGE = """
+            Usage: OrgGenerator --out <file> [options]
+              --rows <n>               rows to generate (default 1000000)
+              --fan-out <dist>         fixed:K | uniform:MIN:MAX | geometric:MEAN (default uniform:2:8)
+              --max-depth <n>          deepest reporting level (default 12)
+              --ceo-salary <amount>    CEO salary (default 500000)
+              --level-ratio <r>        salary ratio between a manager and its reports (default 1.35)
+              --salary-noise <f>       relative salary noise (default 0.05)
+              --violation-rate <f>     share of under/overpaid employees (default 0.01)
+              --error-rate <f>         injected bad rows per row (default 0)
+              --shuffle                write rows in random order
+              --bucket-rows <n>        rows held in memory per shuffle bucket (default 1000000)
+              --tmp-dir <dir>          where shuffle buckets are written (default: system temp)
+              --seed <n>               random seed (default 42)
+            """;
+
+    private static final String[] FIRST_NAMES = {"Ava", "Ben", "Chloe", "Dev", "Emma", "Felix", "Grace", "Hugo",
+            "Isla", "Jonas", "Kira", "Liam", "Maya", "Noah", "Olga", "Priya", "Quinn", "Ravi", "Sara", "Tom"};
+    private static final String[] LAST_NAMES = {"Adams", "Brown", "Chen", "Dubois", "Evans", "Fischer", "Garcia",
+            "Hansen", "Ito", "Jones", "Kumar", "Lopez", "Meyer", "Novak", "Olsen", "Patel", "Rossi", "Smith"};
+
+    public enum ErrorKind { DUPLICATE_ID, UNKNOWN_MANAGER, CYCLE }
+
+    /** Number of reports per manager: {@code fixed:K}, {@code uniform:MIN:MAX} or {@code geometric:MEAN}. */
+    public record FanOut(String kind, double a, double b) {
+
+        public static FanOut parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+            try {
+                FanOut fanOut = switch (parts[0]) {
+                    case "fixed" -> new FanOut("fixed", Integer.parseInt(parts[1]), 0);
+                    case "uniform" -> new FanOut("uniform", Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    case "geometric" -> new FanOut("geometric", Double.parseDouble(parts[1]), 0);
+                    default -> throw new IllegalArgumentException("Unknown fan-out distribution: " + spec);
+                };
+                if (fanOut.a < 1 || (fanOut.kind.equals("uniform") && fanOut.b < fanOut.a)) {
+                    throw new IllegalArgumentException("Fan-out must be at least 1: " + spec);
+                }
+                return fanOut;
+            } catch (ArrayIndexOutOfBoundsException | NumberFormatException ex) {
+                throw new IllegalArgumentException("Malformed fan-out distribution: " + spec);
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            return switch (kind) {
+                case "fixed" -> (int) a;
+                case "uniform" -> random.nextInt((int) a, (int) b + 1);
+                // geometric on {1, 2, ...} with the given mean
+                default -> 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / a));
+            };
+        }
+    }
+
+    public record Options(long rows, FanOut fanOut, int maxDepth, double ceoSalary, double levelRatio,
+                          double salaryNoise, double violationRate, double errorRate, boolean shuffle,
+                          int bucketRows, long seed, Path out, Path tmpDir) {
+
+        public static Options parse(String... args) {
+            long rows = 1_000_000;
+            FanOut fanOut = FanOut.parse("uniform:2:8");
+            int maxDepth = 12;
+            double ceoSalary = 500_000;
+            double levelRatio = 1.35;
+            double salaryNoise = 0.05;
+            double violationRate = 0.01;
+            double errorRate = 0;
+            boolean shuffle = false;
+            int bucketRows = 1_000_000;
+            long seed = 42;
+            Path out = null;
+            Path tmpDir = null;
+
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--shuffle")) {
+                    shuffle = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+                String value = args[++i];
+                try {
+                    switch (arg) {
+                        case "--rows" -> rows = Long.parseLong(value);
+                        case "--fan-out" -> fanOut = FanOut.parse(value);
+                        case "--max-depth" -> maxDepth = Integer.parseInt(value);
+                        case "--ceo-salary" -> ceoSalary = Double.parseDouble(value);
+                        case "--level-ratio" -> levelRatio = Double.parseDouble(value);
+                        case "--salary-noise" -> salaryNoise = Double.parseDouble(value);
+                        case "--violation-rate" -> violationRate = Double.parseDouble(value);
+                        case "--error-rate" -> errorRate = Double.parseDouble(value);
+                        case "--bucket-rows" -> bucketRows = Integer.parseInt(value);
+                        case "--seed" -> seed = Long.parseLong(value);
+                        case "--out" -> out = Paths.get(value);
+                        case "--tmp-dir" -> tmpDir = Paths.get(value);
+                        default -> throw new IllegalArgumentException("Unknown option: " + arg);
+                    }
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid value for " + arg + ": " + value);
+                }
+            }
+
+            if (rows < 1) throw new IllegalArgumentException("--rows must be at least 1");
+            if (maxDepth < 1) throw new IllegalArgumentException("--max-depth must be at least 1");
+            if (bucketRows < 1) throw new IllegalArgumentException("--bucket-rows must be at least 1");
+            return new Options(rows, fanOut, maxDepth, ceoSalary, levelRatio, salaryNoise,
+                    violationRate, errorRate, shuffle, bucketRows, seed, out, tmpDir);
+        }
+    }
+
+    /** What was written: valid employee rows plus the injected bad rows by kind. */
+    public record Result(long employees, Map<ErrorKind, Long> injected) {}
+
+    @FunctionalInterface
+    private interface RowSink {
+        void row(String line) throws IOException;
+    }
+
+    private final Options options;
+
+    public OrgGenerator(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        int status = cli(args, System.out);
+        if (status != 0) System.exit(status);
+    }
+
+    /**
+     * Command-line entry point; prints usage on bad arguments. Returns the process exit status:
+     * 0 when the file was written, 1 when writing failed, 2 for bad arguments.
+     */
+    public static int cli(String[] args, PrintStream stdout) {
+        Options options;
+        try {
+            options = Options.parse(args);
+            if (options.out() == null) throw new IllegalArgumentException("--out is required");
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.print(USAGE);
+            return 2;
+        }
+
+        try {
+            long start = System.nanoTime();
+            Result result = new OrgGenerator(options).generate(options.out());
+            stdout.printf("Wrote %d employees to %s in %.1fs, injected errors: %s%n", result.employees(),
+                    options.out(), (System.nanoTime() - start) / 1e9, result.injected());
+            return 0;
+        } catch (IOException | UncheckedIOException ex) {
+            System.err.println("Failure: " + ex.getMessage());
+            return 1;
+        }
+    }
+
+    public Result generate(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return generate(out);
+        }
+    }
+
+    public Result generate(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+        if (!options.shuffle()) {
+            return emit(line -> {
+                out.write(line);
+                out.write('\n');
+            });
+        }
+        return emitShuffled(out);
+    }
+
+    private Result emit(RowSink sink) throws IOException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        Map<ErrorKind, Long> injected = new EnumMap<>(ErrorKind.class);
+        for (ErrorKind kind : ErrorKind.values()) injected.put(kind, 0L);
+
+        // level d holds the employees with index in [levelStart[d], levelStart[d + 1])
+        List<Long> levelStart = new ArrayList<>(List.of(0L, 1L));
+        sink.row(row(random, 0, 0, -1));
+
+        long generated = 1;
+        long manager = 0;
+        int managerDepth = 0;
+        int quota = options.fanOut().sample(random);
+        long wrapEnd = -1; // once set, remaining rows go round-robin to managers below this index
+
+        while (generated < options.rows()) {
+            while (quota == 0) {
+                manager++;
+                if (wrapEnd < 0 && manager == levelStart.get(managerDepth + 1)) {
+                    if (manager == generated || managerDepth + 1 >= options.maxDepth()) {
+                        wrapEnd = manager;
+                    } else {
+                        managerDepth++;
+                        levelStart.add(generated);
+                    }
+                }
+                if (wrapEnd >= 0) {
+                    if (manager >= wrapEnd) manager = 0;
+                    managerDepth = depthOf(levelStart, manager);
+                }
+                quota = options.fanOut().sample(random);
+            }
+
+            sink.row(row(random, generated, managerDepth + 1, manager));
+            generated++;
+            quota--;
+
+            if (options.errorRate() > 0 && random.nextDouble() < options.errorRate()) {
+                ErrorKind kind = ErrorKind.values()[random.nextInt(ErrorKind.values().length)];
+                injected.merge(kind, 1L, Long::sum);
+                long n = injected.get(kind);
+                switch (kind) {
+                    case DUPLICATE_ID -> sink.row(generated + ",Dup,Licate,50000," + (manager + 1));
+                    case UNKNOWN_MANAGER -> sink.row("U" + n + ",Lost,Soul,50000,M" + n);
+                    case CYCLE -> {
+                        sink.row("CA" + n + ",Circle,One,50000,CB" + n);
+                        sink.row("CB" + n + ",Circle,Two,50000,CA" + n);
+                    }
+                }
+            }
+        }
+        return new Result(generated, injected);
+    }
+
+    private static int depthOf(List<Long> levelStart, long index) {
+        int lo = 0;
+        int hi = levelStart.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (levelStart.get(mid) <= index) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private String row(SplittableRandom random, long index, int depth, long manager) {
+        double salary = options.ceoSalary() / Math.pow(options.levelRatio(), depth)
+                * (1 + options.salaryNoise() * (2 * random.nextDouble() - 1));
+        if (random.nextDouble() < options.violationRate()) {
+            salary *= random.nextBoolean() ? 0.80 : 1.25;
+        }
+        return (index + 1) + "," + FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + ","
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + "," + Math.round(salary) + ","
+                + (manager < 0 ? "" : String.valueOf(manager + 1));
+    }
+
+    /** Rows go to random bucket files first; each bucket is then shuffled in memory and appended. */
+    private Result emitShuffled(Writer out) throws IOException {
+        long expectedRows = (long) (options.rows() * (1 + 2 * options.errorRate()));
+        int buckets = (int) Math.max(1, (expectedRows + options.bucketRows() - 1) / options.bucketRows());
+        Path dir = options.tmpDir() == null
+                ? Files.createTempDirectory("org-generator")
+                : Files.createTempDirectory(options.tmpDir(), "org-generator");
+        SplittableRandom spread = new SplittableRandom(options.seed() ^ 0x5DEECE66DL);
+        List<Writer> writers = new ArrayList<>(buckets);
+        try {
+            Result result;
+            try {
+                for (int b = 0; b < buckets; b++) {
+                    writers.add(new BufferedWriter(Files.newBufferedWriter(dir.resolve("bucket-" + b)), 1 << 14));
+                }
+                result = emit(line -> {
+                    Writer w = writers.get(spread.nextInt(buckets));
+                    w.write(line);
+                    w.write('\n');
+                });
+            } finally {
+                for (Writer w : writers) w.close();
+            }
+
+            for (int b = 0; b < buckets; b++) {
+                List<String> lines = new ArrayList<>();
+                try (BufferedReader r = Files.newBufferedReader(dir.resolve("bucket-" + b))) {
+                    for (String line = r.readLine(); line != null; line = r.readLine()) lines.add(line);
+                }
+                Collections.shuffle(lines, new Random(options.seed() + b));
+                for (String line : lines) {
+                    out.write(line);
+                    out.write('\n');
+                }
+            }
+            return result;
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path f : files.toList()) Files.deleteIfExists(f);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.company;
 
+import com.company.model.Employee;
+import com.company.model.Violation;
 import com.company.service.EmployeeService;
 import com.company.service.EmployeeServiceImpl;
 import org.junit.jupiter.api.AfterEach;
@@ -10,7 +12,7 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,18 +40,31 @@ public class MainTest {
 
         EmployeeService mockedService = mock(EmployeeService.class);
 
-        Map<String, List<String>> salaryMap = Map.of(
-                "underpaid", List.of("UNDERPAID: Alice (300) is underpaid by 42000.00"),
-                "overpaid", List.of("OVERPAID: Paul (700) is overpaid by 84000.00")
+        List<Violation> salaryViolations = List.of(
+                new Violation("300", Violation.Kind.UNDERPAID, 90000, 42000),
+                new Violation("700", Violation.Kind.OVERPAID, 60000, 84000)
         );
-        when(mockedService.validateSalaries()).thenReturn(salaryMap);
-        when(mockedService.validateReportingLines(4)).thenReturn(List.of("LONG: Olivia (600) by 1"));
+        when(mockedService.findSalaryViolations()).thenReturn(salaryViolations);
+        when(mockedService.findReportingLineViolations(4)).thenReturn(
+                List.of(new Violation("600", Violation.Kind.LONG_REPORTING_LINE, 4, 1)));
+        when(mockedService.getById(any())).thenAnswer(inv -> Optional.of(named(switch ((String) inv.getArgument(0)) {
+            case "300" -> "Alice";
+            case "700" -> "Paul";
+            default -> "Olivia";
+        })));
         doNothing().when(mockedService).loadEmployees(any());
 
         try (MockedConstruction<EmployeeServiceImpl> mc = mockConstruction(EmployeeServiceImpl.class,
                 (constructed, context) -> {
-                    when(constructed.validateSalaries()).thenAnswer(inv -> mockedService.validateSalaries());
-                    when(constructed.validateReportingLines(4)).thenAnswer(inv -> mockedService.validateReportingLines(4));
+                    doAnswer(inv -> {
+                        mockedService.findSalaryViolations().forEach(inv.getArgument(0));
+                        return null;
+                    }).when(constructed).forEachSalaryViolation(any());
+                    doAnswer(inv -> {
+                        mockedService.findReportingLineViolations(4).forEach(inv.getArgument(1));
+                        return null;
+                    }).when(constructed).forEachReportingLineViolation(eq(4), any());
+                    when(constructed.getById(any())).thenAnswer(inv -> mockedService.getById(inv.getArgument(0)));
                     doAnswer(inv -> {
                         mockedService.loadEmployees(inv.getArgument(0));
                         return null;
@@ -76,6 +91,12 @@ public class MainTest {
         }
     }
 
+    private static Employee named(String fullName) {
+        Employee e = mock(Employee.class);
+        when(e.getFullName()).thenReturn(fullName);
+        return e;
+    }
+
     @Test
     public void testMainFileNotFoundMessage_whenFileMissing() throws Exception {
         String fakePath = Path.of("nonexistent-file-xyz.csv").toAbsolutePath().toString();
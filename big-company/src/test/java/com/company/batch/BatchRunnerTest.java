@@ -0,0 +1,110 @@
+package com.company.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+
+    private static final String GOOD = """
+        Id,firstName,lastName,salary,managerId
+        100,John,CEO,150000,
+        101,Sarah,Smith,20000,100
+        201,Emp,One,30000,101
+        202,Emp,Two,40000,101
+        """;
+
+    @Test
+    void testValidatesAllMatchingFilesAndWritesSummary(@TempDir Path dir) throws Exception {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        Path out = dir.resolve("out");
+        Files.createDirectories(in.resolve("eu"));
+        Files.writeString(in.resolve("acme.csv"), GOOD);
+        Files.writeString(in.resolve("eu/acme.csv"), GOOD);
+        Files.writeString(in.resolve("broken.csv"), GOOD + "300,Bad,Row,abc,100\n");
+        Files.writeString(in.resolve("notes.txt"), "ignored");
+
+        BatchRunner.Options options = BatchRunner.Options.parse(in.toString(), in + "/eu/*.csv",
+                "--out", out.toString(), "--limit", "0", "--threads", "2", "--memory-budget", "1k");
+        List<BatchRunner.FileResult> results = new BatchRunner(options).run();
+
+        assertEquals(List.of(in.resolve("acme.csv"), in.resolve("broken.csv"), in.resolve("eu/acme.csv")),
+                results.stream().map(BatchRunner.FileResult::file).toList());
+        BatchRunner.FileResult first = results.get(0);
+        assertTrue(first.ok());
+        assertEquals(4, first.employees());
+        assertEquals(1, first.underpaid());
+        assertEquals(1, first.overpaid());
+        assertEquals(2, first.longLines());
+        assertFalse(results.get(1).ok());
+        assertTrue(results.get(1).error().contains("Invalid salary for id 300"));
+
+        assertTrue(Files.readString(out.resolve("acme.txt")).contains("Sarah Smith (101) is underpaid by 22000.00"));
+        assertTrue(Files.exists(out.resolve("acme-2.txt")), "Clashing report names get a suffix");
+        List<String> summary = Files.readAllLines(out.resolve("summary.csv"));
+        assertEquals(4, summary.size());
+        assertTrue(summary.get(2).contains(",FAILED,"));
+    }
+
+    @Test
+    void testSnapshotDirKeepsOneWarmStartSnapshotPerInput(@TempDir Path dir) throws Exception {
+        Path in = Files.createDirectories(dir.resolve("in"));
+        Files.writeString(in.resolve("acme.csv"), GOOD);
+        Files.writeString(in.resolve("beta.csv"), GOOD);
+        Path snapshots = dir.resolve("snapshots");
+        BatchRunner.Options options = BatchRunner.Options.parse(in.toString(), "--out", dir.resolve("out").toString(),
+                "--snapshot-dir", snapshots.toString());
+
+        List<BatchRunner.FileResult> cold = new BatchRunner(options).run();
+        assertTrue(Files.exists(snapshots.resolve("acme.snapshot")));
+        assertTrue(Files.exists(snapshots.resolve("beta.snapshot")));
+
+        List<BatchRunner.FileResult> warm = new BatchRunner(options).run();
+        assertEquals(cold.stream().map(r -> r.employees() + "/" + r.underpaid() + "/" + r.overpaid()).toList(),
+                warm.stream().map(r -> r.employees() + "/" + r.underpaid() + "/" + r.overpaid()).toList());
+        assertTrue(warm.stream().allMatch(BatchRunner.FileResult::ok));
+    }
+
+    @Test
+    void testCliReportsFailuresInItsExitStatus(@TempDir Path dir) throws Exception {
+        Path good = dir.resolve("good.csv");
+        Path broken = dir.resolve("broken.csv");
+        Files.writeString(good, GOOD);
+        Files.writeString(broken, GOOD + "300,Bad,Row,abc,100\n");
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+        assertEquals(0, BatchRunner.cli(new String[] {good.toString(), "--out", dir.resolve("a").toString()}, out));
+        assertEquals(1, BatchRunner.cli(new String[] {good.toString(), broken.toString(),
+                "--out", dir.resolve("b").toString()}, out));
+        assertEquals(2, BatchRunner.cli(new String[] {"--limit", "4"}, out));
+        assertEquals(2, BatchRunner.cli(new String[] {dir.resolve("missing.csv").toString()}, out));
+    }
+
+    @Test
+    void testCompressedFilesReserveTheirUncompressedSize(@TempDir Path dir) throws Exception {
+        String csv = GOOD + "303,Emp,Three,40000,101\n".repeat(10_000);
+        Path gz = dir.resolve("big.csv.gz");
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(gz))) {
+            os.write(csv.getBytes(StandardCharsets.UTF_8));
+        }
+        assertTrue(Files.size(gz) < csv.length() / 10);
+        assertEquals((long) csv.length() * BatchRunner.HEAP_PER_CSV_BYTE, BatchRunner.heapEstimate(gz));
+    }
+
+    @Test
+    void testRejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.Options.parse("--limit", "4"));
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.Options.parse("a.csv", "--threads", "0"));
+        assertThrows(IllegalArgumentException.class, () -> BatchRunner.Options.parse("a.csv", "--format", "xml"));
+    }
+}
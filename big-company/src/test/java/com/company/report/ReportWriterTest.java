@@ -0,0 +1,82 @@
+package com.company.report;
+
+import com.company.model.Employee;
+import com.company.model.Violation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportWriterTest {
+
+    private static final Employee ALICE = new Employee("300", "Alice", "Hasacat, Jr", 48000, "1");
+
+    private static Optional<Employee> lookup(String id) {
+        return "300".equals(id) ? Optional.of(ALICE) : Optional.empty();
+    }
+
+    @Test
+    void testTextReportStreamsLinesAndSummary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ReportWriter report = ReportWriter.toStream(out, ReportWriter.Format.TEXT, ReportWriterTest::lookup)) {
+            report.section("Salary Violations");
+            report.accept(new Violation("300", Violation.Kind.UNDERPAID, 90000, 42000));
+            report.accept(new Violation("600", Violation.Kind.LONG_REPORTING_LINE, 4, 2));
+            assertEquals(1, report.count(Violation.Kind.UNDERPAID));
+            report.section("Reporting Line Issues");
+        }
+
+        String text = out.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("=== Salary Violations ==="));
+        assertTrue(text.contains("UNDERPAID: Alice Hasacat, Jr (300) is underpaid by 42000.00"));
+        assertTrue(text.contains("=== Reporting Line Issues ===\nNone\n"), "An empty section says so");
+        assertTrue(text.contains("LONG: <unknown> (600) by 2"));
+        assertTrue(text.contains("UNDERPAID employees: 1"));
+        assertTrue(text.contains("OVERPAID employees: 0"));
+        assertTrue(text.contains("LONG reporting lines: 1"));
+    }
+
+    @Test
+    void testCsvAndNdjsonFiles(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("report.csv");
+        Path ndjson = dir.resolve("report.ndjson");
+        Violation v = new Violation("300", Violation.Kind.OVERPAID, 60000, 1500.5);
+
+        try (ReportWriter report = ReportWriter.toFile(csv, ReportWriter.Format.CSV, ReportWriterTest::lookup)) {
+            report.accept(v);
+        }
+        try (ReportWriter report = ReportWriter.toFile(ndjson, ReportWriter.Format.NDJSON, ReportWriterTest::lookup)) {
+            report.accept(v);
+        }
+
+        assertEquals(List.of("employeeId,name,kind,threshold,delta",
+                "300,\"Alice Hasacat, Jr\",OVERPAID,60000.0,1500.5"), Files.readAllLines(csv));
+        assertEquals(List.of("{\"employeeId\":\"300\",\"name\":\"Alice Hasacat, Jr\",\"kind\":\"OVERPAID\","
+                + "\"threshold\":60000.0,\"delta\":1500.5}"), Files.readAllLines(ndjson));
+    }
+
+    @Test
+    void testNonFiniteAmountsAndOddIdsStayParseable() throws Exception {
+        Violation v = new Violation("9,\"x\"", Violation.Kind.UNDERPAID, Double.NaN, Double.POSITIVE_INFINITY);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        try (ReportWriter report = ReportWriter.toStream(csv, ReportWriter.Format.CSV, ReportWriterTest::lookup)) {
+            report.accept(v);
+        }
+        try (ReportWriter report = ReportWriter.toStream(ndjson, ReportWriter.Format.NDJSON, ReportWriterTest::lookup)) {
+            report.accept(v);
+        }
+
+        assertEquals("employeeId,name,kind,threshold,delta\n\"9,\"\"x\"\"\",,UNDERPAID,NaN,Infinity\n",
+                csv.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"employeeId\":\"9,\\\"x\\\"\",\"name\":\"\",\"kind\":\"UNDERPAID\",\"threshold\":null,\"delta\":null}\n",
+                ndjson.toString(StandardCharsets.UTF_8));
+    }
+}
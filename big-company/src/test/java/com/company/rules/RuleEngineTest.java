@@ -0,0 +1,67 @@
+package com.company.rules;
+
+import com.company.model.Violation;
+import com.company.service.EmployeeServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleEngineTest {
+
+    private static final String CSV = """
+        Id,firstName,lastName,salary,managerId
+        1,CEO,One,300000,
+        2,Mid,Two,90000,1
+        3,Mid,Three,120000,1
+        4,Emp,Four,60000,2
+        5,Emp,Five,70000,2
+        6,Emp,Six,80000,3
+        7,Emp,Seven,50000,6
+        8,Emp,Eight,50000,7
+        9,Emp,Nine,50000,8
+        """;
+
+    private static List<String> summarize(List<Violation> violations) {
+        return violations.stream().map(v -> v.employeeId() + ":" + v.kind()).toList();
+    }
+
+    @Test
+    void testRuleSetsAreEvaluatedTogether() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(CSV));
+
+        Map<String, List<Violation>> result = svc.evaluate(List.of(
+                RuleSet.of("global", SalaryBandRule.DEFAULT, new ReportingLineRule(2)),
+                RuleSet.of("division", new SalaryBandRule(1.0, 2.0), new ReportingLineRule(1)).within("3")));
+
+        assertEquals(List.of("global", "division"), List.copyOf(result.keySet()));
+        assertEquals(List.of("1:OVERPAID", "6:OVERPAID", "7:UNDERPAID", "8:UNDERPAID", "8:LONG_REPORTING_LINE",
+                "9:LONG_REPORTING_LINE"), summarize(result.get("global")));
+        assertEquals(List.of("7:LONG_REPORTING_LINE", "8:LONG_REPORTING_LINE", "9:LONG_REPORTING_LINE"),
+                summarize(result.get("division")));
+
+        List<Violation> salaryOnly = result.get("global").stream()
+                .filter(v -> v.kind() != Violation.Kind.LONG_REPORTING_LINE).toList();
+        assertEquals(new HashSet<>(svc.findSalaryViolations()), new HashSet<>(salaryOnly));
+        assertEquals(svc.findReportingLineViolations(2), result.get("global").stream()
+                .filter(v -> v.kind() == Violation.Kind.LONG_REPORTING_LINE).toList());
+    }
+
+    @Test
+    void testInvalidRuleSets() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(CSV));
+
+        assertThrows(IllegalArgumentException.class, () -> new SalaryBandRule(1.5, 1.2));
+        assertThrows(IllegalArgumentException.class, () -> new ReportingLineRule(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> svc.evaluate(List.of(RuleSet.of("x", SalaryBandRule.DEFAULT).within("42"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> svc.evaluate(List.of(RuleSet.of("x"), RuleSet.of("x"))));
+    }
+}
@@ -0,0 +1,52 @@
+package com.company.server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileWatcherTest {
+
+    @Test
+    void testPollingDebouncesBurstOfWrites(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("watched.csv");
+        Files.writeString(file, "");
+        AtomicInteger calls = new AtomicInteger();
+
+        try (FileWatcher ignored = FileWatcher.poll(file, Duration.ofMillis(10), Duration.ofMillis(300),
+                calls::incrementAndGet)) {
+            for (int i = 0; i < 5; i++) {
+                Files.writeString(file, "x".repeat(i + 1));
+                Thread.sleep(30);
+            }
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (calls.get() == 0 && System.nanoTime() < deadline) Thread.sleep(20);
+            Thread.sleep(400);
+            assertEquals(1, calls.get(), "A burst of writes should trigger one callback");
+        }
+    }
+
+    @Test
+    void testWatchEventFiresEvenWhenMtimeAndSizeAreUnchanged(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("watched.csv");
+        Files.writeString(file, "aaaa");
+        FileTime mtime = Files.getLastModifiedTime(file);
+        AtomicInteger calls = new AtomicInteger();
+
+        try (FileWatcher ignored = FileWatcher.watch(file, Duration.ofMillis(50), calls::incrementAndGet)) {
+            // a same-size rewrite within one tick of a coarse-mtime file system
+            Files.writeString(file, "bbbb");
+            Files.setLastModifiedTime(file, mtime);
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (calls.get() == 0 && System.nanoTime() < deadline) Thread.sleep(20);
+            assertTrue(calls.get() > 0, "A reported change must not be dropped because the fingerprint matches");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.company.server;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrgServerTest {
+
+    private static final String CSV = """
+        Id,firstName,lastName,salary,managerId
+        100,John,CEO,150000,
+        101,Sarah,Smith,20000,100
+        201,Emp,One,30000,101
+        202,Emp,Two,40000,101
+        """;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private HttpResponse<String> send(OrgServer server, String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testQueriesAndAtomicReload(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("emps.csv");
+        Files.writeString(csv, CSV);
+
+        try (OrgServer server = new OrgServer(csv, 0, 2, 4)) {
+            server.start();
+            assertTrue(server.address().getAddress().isLoopbackAddress(), "Must not listen on all interfaces by default");
+
+            HttpResponse<String> ceo = send(server, "GET", "/ceo");
+            assertEquals(200, ceo.statusCode());
+            assertEquals("{\"id\":\"100\",\"firstName\":\"John\",\"lastName\":\"CEO\",\"salary\":150000.0,"
+                    + "\"managerId\":null,\"subordinates\":[\"101\"]}", ceo.body());
+            assertTrue(send(server, "GET", "/employees/201").body().contains("\"managerId\":\"101\""));
+            assertEquals(404, send(server, "GET", "/employees/999").statusCode());
+            assertEquals(405, send(server, "POST", "/ceo").statusCode());
+
+            assertEquals("{\"underpaid\":[\"Sarah Smith (101) is underpaid by 22000.00\"],"
+                    + "\"overpaid\":[\"John CEO (100) is overpaid by 120000.00\"]}",
+                    send(server, "GET", "/violations/salaries").body());
+            assertEquals("{\"limit\":0,\"violations\":[\"LONG: Emp One (201) by 1\",\"LONG: Emp Two (202) by 1\"]}",
+                    send(server, "GET", "/violations/reporting-lines?limit=0").body());
+            assertEquals("{\"limit\":4,\"violations\":[]}", send(server, "GET", "/violations/reporting-lines").body());
+            assertEquals(400, send(server, "GET", "/violations/reporting-lines?limit=x").statusCode());
+
+            OrgSnapshot before = server.snapshot();
+            Files.writeString(csv, CSV + "300,Bad,Row,abc,100\n");
+            HttpResponse<String> failed = send(server, "POST", "/reload");
+            assertEquals(422, failed.statusCode());
+            assertTrue(failed.body().contains("Invalid salary for id 300"));
+            assertSame(before, server.snapshot(), "A failed reload keeps serving the old snapshot");
+
+            Files.writeString(csv, CSV + "300,New,Hire,50000,100\n");
+            assertEquals(200, send(server, "POST", "/reload").statusCode());
+            assertEquals(5, server.snapshot().size());
+            assertEquals(200, send(server, "GET", "/employees/300").statusCode());
+        }
+    }
+
+    @Test
+    void testLoadsAndReloadsThroughSnapshotFile(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("emps.csv");
+        Path snapshot = dir.resolve("emps.snapshot");
+        Files.writeString(csv, CSV);
+
+        try (OrgServer server = new OrgServer(csv, snapshot, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 4)) {
+            assertTrue(Files.exists(snapshot), "The first load writes the snapshot");
+        }
+        try (OrgServer server = new OrgServer(csv, snapshot, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 4)) {
+            assertEquals(4, server.snapshot().size());
+            Files.writeString(csv, CSV + "300,New,Hire,50000,100\n");
+            assertEquals(5, server.reload().size());
+        }
+    }
+
+    private static void awaitSize(OrgServer server, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (server.snapshot().size() != size && System.nanoTime() < deadline) Thread.sleep(20);
+        assertEquals(size, server.snapshot().size());
+    }
+
+    @Test
+    void testWatchReloadsChangedFileAndKeepsSnapshotOnInvalidOne(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("emps.csv");
+        Files.writeString(csv, CSV);
+
+        try (OrgServer server = new OrgServer(csv, 0, 1, 4)) {
+            server.watch(Duration.ofMillis(50));
+
+            Files.writeString(csv, CSV + "300,New,Hire,50000,100\n");
+            awaitSize(server, 5);
+
+            int failures = server.failedReloads();
+            Files.writeString(csv, CSV + "300,New,Hire,50000,999\n");
+            long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+            while (server.failedReloads() == failures && System.nanoTime() < deadline) Thread.sleep(20);
+            assertTrue(server.failedReloads() > failures, "The invalid file should have been tried");
+            assertEquals(5, server.snapshot().size(), "Invalid files must not replace the live snapshot");
+            assertEquals("100", server.snapshot().getById("300").orElseThrow().getManagerId());
+
+            Files.writeString(csv, CSV + "300,New,Hire,50000,100\n301,Other,Hire,50000,100\n");
+            awaitSize(server, 6);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.company.service;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarEmployeeServiceTest {
+
+    private static final String CSV = """
+        Id,firstName,lastName,salary,managerId
+        100,John,CEO,150000,
+        101,Sarah,Smith,20000,100
+        102,Ravi,Kumar,200000,100
+
+        201,Emp,One,30000,101
+        202,Emp,Two,40000,101
+        301,Emp,Three,50000,102
+        302,Emp,Four,55000,102
+        401,Deep,One,10000,302
+        402,Deep,Two,10000,401
+        403,Deep,Three,10000,402
+        404,Deep,Four,10000,403
+        405,Deep,Five,10000,404
+        """;
+
+    @Test
+    void testValidationsMatchObjectService() throws Exception {
+        EmployeeServiceImpl objects = new EmployeeServiceImpl();
+        objects.loadFromFile(new StringReader(CSV));
+        ColumnarEmployeeService columnar = new ColumnarEmployeeService();
+        columnar.loadFromFile(new StringReader(CSV));
+
+        assertEquals(objects.validateSalaries(), columnar.validateSalaries());
+        assertEquals(objects.validateReportingLines(4), columnar.validateReportingLines(4));
+        assertEquals(objects.validateReportingLines(2), columnar.validateReportingLines(2));
+    }
+
+    @Test
+    void testLazyEmployeesMirrorHierarchy() throws Exception {
+        ColumnarEmployeeService svc = new ColumnarEmployeeService();
+        svc.loadFromFile(new StringReader(CSV));
+
+        Employee ceo = svc.getCeo();
+        assertEquals("100", ceo.getId());
+        assertNull(ceo.getManagerId());
+        assertEquals(List.of("101", "102"), ceo.getSubordinates().stream().map(Employee::getId).toList());
+
+        Employee ravi = svc.getById("102").orElseThrow();
+        assertSame(ravi, ceo.getSubordinates().get(1), "Materialized employees should be cached");
+        assertEquals("100", ravi.getManagerId());
+        assertEquals(200000, ravi.getSalary());
+        assertEquals(12, svc.getEmployees().size());
+        assertTrue(svc.getById("999").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> ravi.getSubordinates().add(ceo));
+    }
+
+    @Test
+    void testOffHeapStorageMatchesObjectService(@TempDir Path dir) throws Exception {
+        EmployeeServiceImpl objects = new EmployeeServiceImpl();
+        objects.loadFromFile(new StringReader(CSV));
+
+        for (ColumnarEmployeeService svc : List.of(ColumnarEmployeeService.offHeap(), ColumnarEmployeeService.mapped(dir))) {
+            try (svc) {
+                svc.loadFromFile(new StringReader(CSV));
+                assertEquals(objects.validateSalaries(), svc.validateSalaries());
+                assertEquals(objects.validateReportingLines(2), svc.validateReportingLines(2));
+
+                Employee ravi = svc.getById("102").orElseThrow();
+                assertEquals("Ravi Kumar", ravi.getFullName());
+                assertEquals(List.of("301", "302"), ravi.getSubordinates().stream().map(Employee::getId).toList());
+
+                // reloading releases the previous columns
+                svc.loadFromFile(new StringReader(CSV));
+                assertEquals(12, svc.getEmployees().size());
+            }
+        }
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count(), "Mapped column files should be deleted on close");
+        }
+    }
+
+    @Test
+    void testPagedColumnsGrowInPlaceAndReuseReleasedPages(@TempDir Path dir) {
+        for (ColumnStorage storage : List.of(ColumnStorage.direct(), ColumnStorage.mapped(dir))) {
+            try (storage) {
+                ColumnStorage.IntColumn ints = storage.ints();
+                ColumnStorage.StringColumn strings = storage.strings();
+                ints.set(0, 7);
+                int first = strings.append("first");
+                // past the small first page and onto the second one
+                ints.set(1_000_000, 8);
+                ints.set(3_000_000, 9);
+                for (int i = 0; i < 100_000; i++) strings.append("id-" + i);
+                assertEquals(7, ints.get(0));
+                assertEquals(8, ints.get(1_000_000));
+                assertEquals(9, ints.get(3_000_000));
+                assertEquals("first", strings.get(first));
+                assertTrue(strings.matches(first + 100_000, "id-99999"));
+
+                ints.release();
+                ColumnStorage.IntColumn reused = storage.ints();
+                assertEquals(0, reused.get(0));
+                assertEquals(0, reused.get(1_000_000));
+                assertEquals(0, reused.get(3_000_000), "Recycled pages must be zero-filled");
+            }
+        }
+    }
+
+    @Test
+    void testLoadErrorsMatchObjectService() {
+        List<String> badFiles = List.of(
+                "Id,firstName,lastName,salary,managerId\n1,A,B,1000,\n1,C,D,2000,\n",
+                "Id,firstName,lastName,salary,managerId\n1,A,B,1000,\n2,C,D,2000,99\n",
+                "Id,firstName,lastName,salary,managerId\n1,A,B,1000,\n2,C,D,2000,\n",
+                "Id,firstName,lastName,salary,managerId\n1,A,B,-5,\n",
+                "Id,firstName,lastName,salary,managerId\n2,C,D,2000,1\n",
+                "Id,firstName,lastName,salary,managerId\n1,A,B,1000,\n2,C,D,2000,4\n3,E,F,1,2\n4,G,H,1,3\n");
+
+        for (String csv : badFiles) {
+            Exception expected = assertThrows(ValidationException.class,
+                    () -> new EmployeeServiceImpl().loadFromFile(new StringReader(csv)));
+            Exception actual = assertThrows(ValidationException.class,
+                    () -> new ColumnarEmployeeService().loadFromFile(new StringReader(csv)));
+            assertEquals(expected.getMessage(), actual.getMessage());
+        }
+    }
+
+    @Test
+    void testCycleIsRejected() {
+        String csv = """
+            Id,firstName,lastName,salary,managerId
+            1,A,B,1000,
+            2,C,D,2000,3
+            3,E,F,3000,2
+            """;
+
+        Exception ex = assertThrows(ValidationException.class,
+                () -> new ColumnarEmployeeService().loadFromFile(new StringReader(csv)));
+        assertTrue(ex.getMessage().toLowerCase().contains("cycle"));
+    }
+}
@@ -1,12 +1,36 @@
 package com.company.service;
 
 import com.company.exceptions.ValidationException;
+import com.company.metrics.LoadMetrics;
+import com.company.metrics.MetricsListener;
+import com.company.metrics.Phase;
+import com.company.metrics.ValidationMetrics;
 import com.company.model.Employee;
+import com.company.model.LoadReport;
+import com.company.model.SalaryDistribution;
+import com.company.model.SubtreeStats;
+import com.company.model.Violation;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -161,4 +185,689 @@ public class EmployeeServiceImplTest {
 
         assertTrue(ex.getMessage().toLowerCase().contains("unknown manager"));
     }
+
+    @Test
+    void testErrorLineNumbersCountBlankLines() {
+        String badCsv = """
+            Id,firstName,lastName,salary,managerId
+            1,A,B,1000,
+
+            3,E,F,oops,1
+            """;
+
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+
+        Exception ex = assertThrows(ValidationException.class,
+                () -> svc.loadFromFile(new StringReader(badCsv)));
+
+        assertEquals("Invalid salary for id 3 at line 3", ex.getMessage());
+    }
+
+    @Test
+    void testMalformedLineValidation() {
+        String badCsv = """
+            Id,firstName,lastName,salary,managerId
+            1,A,B
+            """;
+
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+
+        Exception ex = assertThrows(ValidationException.class,
+                () -> svc.loadFromFile(new StringReader(badCsv)));
+
+        assertEquals("Malformed line 1: expected at least 4 columns", ex.getMessage());
+    }
+
+    private static String chainCsv(int rows) {
+        StringBuilder sb = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,CEO,One,500000,\n");
+        for (int i = 2; i <= rows; i++) {
+            sb.append(i).append(",First").append(i).append(",Last,").append(1000 + i).append(',').append(i / 2).append('\n');
+            if (i % 97 == 0) sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void testParallelLoadMatchesSequential(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("emps.csv");
+        Files.writeString(file, chainCsv(5000));
+
+        EmployeeServiceImpl sequential = new EmployeeServiceImpl();
+        sequential.loadEmployees(file);
+        EmployeeServiceImpl parallel = new EmployeeServiceImpl();
+        parallel.loadEmployeesParallel(file, 4, 512);
+
+        assertEquals(sequential.getEmployees().stream().map(Employee::getId).toList(),
+                parallel.getEmployees().stream().map(Employee::getId).toList());
+        assertEquals("1", parallel.getCeo().getId());
+        assertEquals(sequential.validateSalaries(), parallel.validateSalaries());
+        assertEquals(sequential.validateReportingLines(4), parallel.validateReportingLines(4));
+    }
+
+    @Test
+    void testGzipInputIsDetectedAndMatchesPlain(@TempDir Path dir) throws Exception {
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,Chief,Exec,500000,\n");
+        for (int i = 2; i <= 60_000; i++) {
+            csv.append(i).append(",First").append(i).append(",Last,").append(30000 + i % 7919)
+                    .append(',').append((i - 2) / 10 + 1).append('\n');
+        }
+        Path plain = dir.resolve("emps.csv");
+        Path gzip = dir.resolve("emps.data"); // detection must not rely on the name
+        Files.writeString(plain, csv);
+        try (Writer w = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(gzip)), StandardCharsets.UTF_8)) {
+            w.write(csv.toString());
+        }
+        assertTrue(Files.size(plain) > CsvInput.BLOCK_BYTES, "input should span several pipeline blocks");
+
+        EmployeeServiceImpl expected = new EmployeeServiceImpl();
+        expected.loadEmployees(plain);
+        EmployeeServiceImpl actual = new EmployeeServiceImpl();
+        actual.loadEmployees(gzip);
+        assertEquals(60_000, actual.getEmployees().size());
+        assertEquals(expected.validateSalaries(), actual.validateSalaries());
+        assertEquals(expected.validateReportingLines(3), actual.validateReportingLines(3));
+
+        EmployeeServiceImpl parallel = new EmployeeServiceImpl();
+        parallel.loadEmployeesParallel(gzip);
+        assertEquals(60_000, parallel.getEmployees().size());
+
+        ColumnarEmployeeService columnar = new ColumnarEmployeeService();
+        columnar.loadEmployees(gzip);
+        assertEquals(expected.validateSalaries(), columnar.validateSalaries());
+
+        byte[] truncated = Arrays.copyOf(Files.readAllBytes(gzip), (int) Files.size(gzip) / 2);
+        Files.write(gzip, truncated);
+        assertThrows(IOException.class, () -> new EmployeeServiceImpl().loadEmployees(gzip));
+    }
+
+    @Test
+    void testInvalidUtf8IsRejectedForPlainAndGzipInput(@TempDir Path dir) throws Exception {
+        byte[] csv = "Id,firstName,lastName,salary,managerId\n1,Jos\u00e9,CEO,500000,\n"
+                .getBytes(StandardCharsets.ISO_8859_1);
+        Path plain = dir.resolve("latin1.csv");
+        Path gzip = dir.resolve("latin1.csv.gz");
+        Files.write(plain, csv);
+        try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            os.write(csv);
+        }
+
+        assertThrows(MalformedInputException.class, () -> new EmployeeServiceImpl().loadEmployees(plain));
+        assertThrows(MalformedInputException.class, () -> new EmployeeServiceImpl().loadEmployees(gzip));
+        assertThrows(MalformedInputException.class,
+                () -> new EmployeeServiceImpl().loadEmployeesParallel(plain, 2, 16));
+    }
+
+    @Test
+    void testShardsLinkAcrossFiles(@TempDir Path dir) throws Exception {
+        String header = "Id,firstName,lastName,salary,managerId\n";
+        String emeaRows = "2,Mid,Two,90000,1\n4,Emp,Four,60000,2\n6,Emp,Six,80000,3\n";
+        String amerRows = "1,CEO,One,300000,\n5,Emp,Five,70000,2\n";
+        String apacRows = "3,Mid,Three,120000,1\n7,Emp,Seven,50000,6\n\n8,Emp,Eight,50000,7\n9,Emp,Nine,50000,8\n";
+        Path emea = shard(dir, "emea", header + emeaRows);
+        Path amer = shard(dir, "amer", header + amerRows);
+        Path apac = shard(dir, "apac", header + apacRows);
+
+        EmployeeServiceImpl sharded = new EmployeeServiceImpl();
+        sharded.loadShards(List.of(emea, amer, apac), 3);
+        EmployeeServiceImpl whole = new EmployeeServiceImpl();
+        whole.loadFromFile(new StringReader(header + emeaRows + amerRows + apacRows));
+
+        assertEquals("1", sharded.getCeo().getId());
+        assertEquals(9, sharded.getEmployees().size());
+        assertEquals(List.of("4", "5"), sharded.getById("2").orElseThrow().getSubordinates().stream().map(Employee::getId).toList());
+        assertEquals(whole.validateSalaries(), sharded.validateSalaries());
+        assertEquals(whole.validateReportingLines(3), sharded.validateReportingLines(3));
+
+        Path dupe = shard(dir, "dupe", header + "10,Emp,Ten,1,2\n5,Emp,Again,1,2\n");
+        assertEquals(dupe + ": Duplicate id '5' at line 2, already in " + amer + " at line 2",
+                assertThrows(ValidationException.class, () -> sharded.loadShards(List.of(emea, amer, apac, dupe))).getMessage());
+
+        Path orphan = shard(dir, "orphan", header + "10,Emp,Ten,1,2\n11,Emp,Eleven,1,99\n");
+        assertEquals(orphan + ": Unknown manager '99' for employee 11 at line 2",
+                assertThrows(ValidationException.class, () -> sharded.loadShards(List.of(emea, amer, apac, orphan))).getMessage());
+
+        Path boss = shard(dir, "boss", header + "\n10,Other,Boss,1,\n");
+        assertEquals(boss + ": Multiple CEOs detected at line 2, CEO already in " + amer + " at line 1",
+                assertThrows(ValidationException.class, () -> sharded.loadShards(List.of(emea, amer, apac, boss))).getMessage());
+
+        Path broken = shard(dir, "broken", header + "10,Emp,Ten,abc,2\n");
+        assertEquals(broken + ": Invalid salary for id 10 at line 1",
+                assertThrows(ValidationException.class, () -> sharded.loadShards(List.of(emea, broken, amer))).getMessage());
+    }
+
+    private static Path shard(Path dir, String name, String csv) throws IOException {
+        Path file = dir.resolve(name + ".csv");
+        Files.writeString(file, csv);
+        return file;
+    }
+
+    @Test
+    void testDiagnosticLoadCollectsEveryProblem(@TempDir Path dir) throws Exception {
+        Path file = shard(dir, "broken", """
+            Id,firstName,lastName,salary,managerId
+            1,CEO,One,300000,
+            2,A,B,abc,1
+            3,C,D,1000,2
+            ,E,F,1000,1
+            3,G,H,1000,1
+            bad line
+            7,I,J,1000,99
+            8,K,L,1000,
+            9,M,N,-5,1
+            10,O,P,1000,11
+            11,Q,R,1000,10
+            12,S,T,1000,10
+            """);
+
+        LoadReport report = EmployeeServiceImpl.diagnose(file, 100, 2);
+        assertEquals(12, report.rows());
+        assertEquals(List.of(LoadReport.Kind.INVALID_SALARY, LoadReport.Kind.EMPTY_ID, LoadReport.Kind.DUPLICATE_ID,
+                        LoadReport.Kind.MALFORMED_ROW, LoadReport.Kind.NEGATIVE_SALARY, LoadReport.Kind.UNKNOWN_MANAGER,
+                        LoadReport.Kind.MULTIPLE_CEOS, LoadReport.Kind.CYCLE),
+                report.problems().stream().map(LoadReport.Problem::kind).toList());
+        assertEquals(List.of(2, 4, 5, 6, 9, 7, 8, 10), report.problems().stream().map(LoadReport.Problem::line).toList());
+        assertEquals("Duplicate id '3' at line 5, first at line 3", report.problems().get(2).message());
+        assertEquals("Reporting cycle detected: 10 -> 11 -> 10", report.problems().get(7).message());
+        assertFalse(report.isValid());
+        assertFalse(report.truncated());
+
+        LoadReport capped = EmployeeServiceImpl.diagnose(file, 3, 2);
+        assertEquals(3, capped.problems().size());
+        assertEquals(8, capped.totalProblems());
+        assertTrue(capped.truncated());
+
+        assertTrue(EmployeeServiceImpl.diagnose(shard(dir, "ok", DELTA_CSV), 10).isValid());
+    }
+
+    @Test
+    void testDiagnosticLoadKeepsFileOrderAcrossBatches(@TempDir Path dir) throws Exception {
+        int rows = 3 * DiagnosticLoader.BATCH_ROWS;
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,C,E,1000,\n");
+        for (int i = 2; i <= rows; i++) {
+            String id = i % 5000 == 0 ? "1" : String.valueOf(i);
+            csv.append(id).append(",F,L,").append(i % 7000 == 0 ? "x" : "100").append(",1\n");
+        }
+        LoadReport report = EmployeeServiceImpl.diagnose(shard(dir, "big", csv.toString()), 1000, 4);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 2; i <= rows; i++) {
+            if (i % 5000 == 0 || i % 7000 == 0) expected.add(i);
+        }
+        assertEquals(expected, report.problems().stream().map(LoadReport.Problem::line).toList());
+        assertEquals(rows, report.rows());
+    }
+
+    @Test
+    void testParallelLoadReportsSameErrorsAsSequential(@TempDir Path dir) throws Exception {
+        String duplicate = chainCsv(3000) + "17,Dup,Row,1000,1\n";
+        String badSalary = chainCsv(3000).replace("\n2500,First2500,Last,3500,", "\n2500,First2500,Last,x,");
+        String duplicateWithBadSalary = chainCsv(3000) + "42,Dup,Row,x,1\n";
+
+        for (String csv : List.of(duplicate, badSalary, duplicateWithBadSalary)) {
+            Path file = dir.resolve("emps.csv");
+            Files.writeString(file, csv);
+
+            Exception expected = assertThrows(ValidationException.class,
+                    () -> new EmployeeServiceImpl().loadEmployees(file));
+            Exception actual = assertThrows(ValidationException.class,
+                    () -> new EmployeeServiceImpl().loadEmployeesParallel(file, 3, 700));
+            assertEquals(expected.getMessage(), actual.getMessage());
+        }
+    }
+
+    @Test
+    void testParallelLoadSplitsLinesLikeReadLine(@TempDir Path dir) throws Exception {
+        // bare \r (old Mac exports) and \r\n must end rows in both loaders, wherever chunks split
+        StringBuilder mixed = new StringBuilder();
+        String[] terminators = {"\n", "\r", "\r\n"};
+        String[] rows = chainCsv(3000).split("\n", -1);
+        for (int i = 0; i < rows.length - 1; i++) mixed.append(rows[i]).append(terminators[i % 3]);
+        String clean = mixed.toString();
+        String broken = clean.replace("\n2500,First2500,Last,3500,", "\n2500,First2500,Last,x,")
+                .replace("\r2500,First2500,Last,3500,", "\r2500,First2500,Last,x,");
+        assertNotEquals(clean, broken);
+
+        Path file = dir.resolve("mixed.csv");
+        Files.writeString(file, clean);
+        EmployeeServiceImpl sequential = new EmployeeServiceImpl();
+        sequential.loadEmployees(file);
+        for (long chunkBytes : new long[]{97, 256, 700}) {
+            EmployeeServiceImpl parallel = new EmployeeServiceImpl();
+            parallel.loadEmployeesParallel(file, 3, chunkBytes);
+            assertEquals(sequential.getEmployees().stream().map(Employee::getId).toList(),
+                    parallel.getEmployees().stream().map(Employee::getId).toList());
+        }
+
+        Files.writeString(file, broken);
+        Exception expected = assertThrows(ValidationException.class,
+                () -> new EmployeeServiceImpl().loadEmployees(file));
+        Exception actual = assertThrows(ValidationException.class,
+                () -> new EmployeeServiceImpl().loadEmployeesParallel(file, 3, 700));
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    void testReportingCycleIsRejected() {
+        String badCsv = """
+            Id,firstName,lastName,salary,managerId
+            1,A,B,1000,
+            5,I,J,1000,3
+            2,C,D,2000,4
+            3,E,F,3000,2
+            4,G,H,3000,3
+            """;
+
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+
+        Exception ex = assertTimeoutPreemptively(java.time.Duration.ofSeconds(5),
+                () -> assertThrows(ValidationException.class, () -> svc.loadFromFile(new StringReader(badCsv))));
+
+        assertEquals("Employee 5 cannot reach the CEO. Reporting cycle detected: 3 -> 2 -> 4 -> 3", ex.getMessage());
+    }
+
+    @Test
+    void testCountManagersBetweenUsesDepths() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(BASIC_CSV));
+
+        assertEquals(0, svc.countManagersBetween(svc.getCeo()));
+        assertEquals(0, svc.countManagersBetween(svc.getById("101").orElseThrow()));
+        assertEquals(3, svc.countManagersBetween(svc.getById("104").orElseThrow()));
+        assertEquals(4, svc.countManagersBetween(new Employee("999", "New", "Hire", 1000, "104")));
+    }
+
+    private static final String DELTA_CSV = """
+        Id,firstName,lastName,salary,managerId
+        1,CEO,One,300000,
+        2,Mid,Two,90000,1
+        3,Mid,Three,120000,1
+        4,Emp,Four,60000,2
+        5,Emp,Five,70000,2
+        6,Emp,Six,80000,3
+        7,Emp,Seven,50000,6
+        8,Emp,Eight,50000,7
+        9,Emp,Nine,50000,8
+        """;
+
+    /** Reloads the current state from scratch so delta results can be compared to a full rebuild. */
+    private static EmployeeServiceImpl reloaded(EmployeeServiceImpl svc) throws Exception {
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n");
+        for (Employee e : svc.getEmployees()) {
+            csv.append(e.getId()).append(',').append(e.getFirstName()).append(',').append(e.getLastName())
+                    .append(',').append(e.getSalary()).append(',')
+                    .append(e.getManagerId() == null ? "" : e.getManagerId()).append('\n');
+        }
+        EmployeeServiceImpl fresh = new EmployeeServiceImpl();
+        fresh.loadFromFile(new StringReader(csv.toString()));
+        return fresh;
+    }
+
+    private static void assertSameResults(EmployeeServiceImpl expected, EmployeeServiceImpl actual, int limit) {
+        Map<String, List<String>> e = expected.validateSalaries();
+        Map<String, List<String>> a = actual.validateSalaries();
+        assertEquals(Set.copyOf(e.get("underpaid")), Set.copyOf(a.get("underpaid")));
+        assertEquals(Set.copyOf(e.get("overpaid")), Set.copyOf(a.get("overpaid")));
+        assertEquals(Set.copyOf(expected.validateReportingLines(limit)), Set.copyOf(actual.validateReportingLines(limit)));
+        for (Employee emp : expected.getEmployees()) {
+            Employee other = actual.getById(emp.getId()).orElseThrow();
+            assertEquals(expected.countManagersBetween(emp), actual.countManagersBetween(other), emp.getId());
+        }
+    }
+
+    @Test
+    void testDeltasKeepViolationsCurrent() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(DELTA_CSV));
+        svc.validateSalaries();
+        svc.validateReportingLines(2);
+        Employee oldCeo = svc.getCeo();
+        Employee oldTwo = svc.getById("2").orElseThrow();
+
+        Employee newHire = new Employee("10", "New", "Hire", 200000, "9");
+        svc.hire(newHire);
+        assertSameResults(reloaded(svc), svc, 2);
+        assertNotSame(newHire, svc.getById("10").orElseThrow(), "The caller's object is copied, not linked in");
+
+        svc.changeSalary("2", 40000);
+        assertSameResults(reloaded(svc), svc, 2);
+
+        svc.changeManager("7", "2");
+        assertSameResults(reloaded(svc), svc, 2);
+        assertEquals(List.of("4", "5", "7"), svc.getById("2").orElseThrow().getSubordinates().stream()
+                .map(Employee::getId).toList());
+
+        svc.terminate("7");
+        assertSameResults(reloaded(svc), svc, 2);
+        assertEquals("2", svc.getById("8").orElseThrow().getManagerId());
+        assertTrue(svc.getById("7").isEmpty());
+
+        // objects handed out before the changes still show the old hierarchy
+        assertEquals(List.of("4", "5"), ids(oldTwo.getSubordinates()));
+        assertEquals(List.of("2", "3"), ids(oldCeo.getSubordinates()));
+        assertNotSame(oldCeo, svc.getCeo());
+        assertEquals(List.of("4", "5", "8"), ids(svc.getById("2").orElseThrow().getSubordinates()));
+        assertEquals(svc.getEmployees().size(), reachable(svc.getCeo()), "Every current employee hangs off the CEO");
+        assertThrows(UnsupportedOperationException.class,
+                () -> svc.getCeo().getSubordinates().add(new Employee("11", "Side", "Door", 1, "1")));
+
+        assertSameResults(reloaded(svc), svc, 1);
+    }
+
+    private static int reachable(Employee root) {
+        int count = 1;
+        for (Employee e : root.getSubordinates()) count += reachable(e);
+        return count;
+    }
+
+    @Test
+    void testDeltasRejectInvalidChanges() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(DELTA_CSV));
+
+        assertThrows(ValidationException.class, () -> svc.hire(new Employee("2", "Dup", "Id", 1000, "1")));
+        assertThrows(ValidationException.class, () -> svc.hire(new Employee("11", "No", "Manager", 1000, "99")));
+        ValidationException noManager = assertThrows(ValidationException.class,
+                () -> svc.hire(new Employee("12", "Second", "Ceo", 1000, null)));
+        assertTrue(noManager.getMessage().contains("has no manager"), noManager.getMessage());
+        assertThrows(ValidationException.class, () -> svc.changeManager("3", "8"));
+        assertThrows(ValidationException.class, () -> svc.changeManager("1", "2"));
+        assertThrows(ValidationException.class, () -> svc.changeSalary("4", -1));
+        assertThrows(ValidationException.class, () -> svc.terminate("1"));
+        assertThrows(ValidationException.class, () -> svc.terminate("99"));
+        assertSameResults(reloaded(svc), svc, 2);
+    }
+
+    @Test
+    void testParallelValidationMatchesSequential() throws Exception {
+        String csv = chainCsv(20000);
+        EmployeeServiceImpl sequential = new EmployeeServiceImpl();
+        sequential.loadFromFile(new StringReader(csv));
+        EmployeeServiceImpl parallel = new EmployeeServiceImpl();
+        parallel.loadFromFile(new StringReader(csv));
+        parallel.setValidationParallelism(4);
+
+        Map<String, List<String>> expected = sequential.validateSalaries();
+        assertTrue(expected.get("underpaid").size() > ParallelScan.LEAF_SIZE);
+        assertEquals(expected, parallel.validateSalaries());
+        assertEquals(sequential.validateReportingLines(3), parallel.validateReportingLines(3));
+        assertEquals(sequential.validateReportingLines(10), parallel.validateReportingLines(10));
+    }
+
+    @Test
+    void testStructuredViolations() throws Exception {
+        String csv = """
+        Id,firstName,lastName,salary,managerId
+        100,John,CEO,150000,
+        101,Sarah,Smith,20000,100
+        102,Ravi,Kumar,200000,100
+        201,Emp,One,30000,101
+        202,Emp,Two,40000,101
+        301,Emp,Three,50000,102
+        302,Emp,Four,55000,102
+        """;
+
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(csv));
+
+        List<Violation> salaries = svc.findSalaryViolations();
+        assertEquals(2, salaries.size());
+        assertEquals(new Violation("101", Violation.Kind.UNDERPAID, 42000, 22000), salaries.get(0));
+        Violation overpaid = salaries.get(1);
+        assertEquals("102", overpaid.employeeId());
+        assertEquals(Violation.Kind.OVERPAID, overpaid.kind());
+        assertEquals(78750, overpaid.threshold(), 1e-9);
+        assertEquals(121250, overpaid.delta(), 1e-9);
+
+        List<Violation> lines = svc.findReportingLineViolations(0);
+        assertEquals(List.of("201", "202", "301", "302"), lines.stream().map(Violation::employeeId).toList());
+        assertEquals(1, lines.get(0).delta());
+    }
+
+    @Test
+    void testSnapshotWarmStart(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("emps.csv");
+        Path snapshot = dir.resolve("emps.snapshot");
+        Files.writeString(csv, DELTA_CSV);
+
+        EmployeeServiceImpl cold = new EmployeeServiceImpl();
+        assertFalse(cold.loadEmployees(csv, snapshot), "First load must parse the CSV");
+        assertTrue(Files.exists(snapshot));
+
+        EmployeeServiceImpl warm = new EmployeeServiceImpl();
+        assertTrue(warm.loadEmployees(csv, snapshot), "Unchanged CSV should be served from the snapshot");
+        assertEquals(cold.getEmployees().stream().map(Employee::getId).toList(),
+                warm.getEmployees().stream().map(Employee::getId).toList());
+        assertEquals("1", warm.getCeo().getId());
+        assertEquals(List.of("4", "5"), warm.getById("2").orElseThrow().getSubordinates().stream()
+                .map(Employee::getId).toList());
+        assertEquals(cold.validateSalaries(), warm.validateSalaries());
+        assertEquals(cold.validateReportingLines(2), warm.validateReportingLines(2));
+
+        Files.writeString(csv, DELTA_CSV + "10,New,Row,1000,9\n");
+        assertFalse(new EmployeeServiceImpl().loadEmployees(csv, snapshot), "Changed CSV must be re-parsed");
+        EmployeeServiceImpl refreshed = new EmployeeServiceImpl();
+        assertTrue(refreshed.loadEmployees(csv, snapshot));
+        assertEquals(10, refreshed.getEmployees().size());
+
+        // matching size and checksum, but a CEO index past the end
+        byte[] image = Files.readAllBytes(snapshot);
+        ByteBuffer.wrap(image).putInt(28, 999);
+        Files.write(snapshot, image);
+        EmployeeServiceImpl badIndex = new EmployeeServiceImpl();
+        assertFalse(badIndex.loadEmployees(csv, snapshot), "Snapshots with bad indexes fall back to the CSV");
+        assertEquals(10, badIndex.getEmployees().size());
+
+        Files.write(snapshot, new byte[]{1, 2, 3});
+        EmployeeServiceImpl recovered = new EmployeeServiceImpl();
+        assertFalse(recovered.loadEmployees(csv, snapshot), "Corrupt snapshots fall back to the CSV");
+        assertEquals(10, recovered.getEmployees().size());
+    }
+
+    @Test
+    void testSnapshotIsNotWrittenWhenCsvChangesDuringLoad(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("emps.csv");
+        Path snapshot = dir.resolve("emps.snapshot");
+        Files.writeString(csv, DELTA_CSV);
+
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.setMetricsListener(new MetricsListener() {
+            @Override
+            public void onLoad(LoadMetrics metrics) {
+                try {
+                    // runs after the rows were read, before the snapshot would be written
+                    Files.writeString(csv, DELTA_CSV + "10,Late,Row,1000,9\n");
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        });
+        assertFalse(svc.loadEmployees(csv, snapshot));
+        assertEquals(9, svc.getEmployees().size());
+        assertFalse(Files.exists(snapshot), "Rows read before the change must not be stored under either checksum");
+
+        EmployeeServiceImpl fresh = new EmployeeServiceImpl();
+        assertFalse(fresh.loadEmployees(csv, snapshot));
+        assertEquals(10, fresh.getEmployees().size());
+    }
+
+    @Test
+    void testMetricsListenerReceivesLoadAndValidationMetrics() throws Exception {
+        List<LoadMetrics> loads = new ArrayList<>();
+        List<ValidationMetrics> validations = new ArrayList<>();
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.setMetricsListener(new MetricsListener() {
+            @Override
+            public void onLoad(LoadMetrics metrics) { loads.add(metrics); }
+
+            @Override
+            public void onValidation(ValidationMetrics metrics) { validations.add(metrics); }
+        });
+
+        svc.loadFromFile(new StringReader(BASIC_CSV));
+        assertEquals(1, loads.size());
+        LoadMetrics load = loads.get(0);
+        assertEquals(5, load.rows());
+        assertEquals(BASIC_CSV.length(), load.bytes());
+        assertTrue(load.phaseNanos().keySet().containsAll(
+                List.of(Phase.READ, Phase.PARSE, Phase.VALIDATE_ROW, Phase.LINK)), load.phaseNanos().toString());
+        assertTrue(load.rowsPerSecond() > 0);
+
+        svc.findSalaryViolations();
+        svc.findSalaryViolations(); // served from the tracked state, not a new scan
+        svc.findReportingLineViolations(2);
+        assertEquals(List.of(Phase.SALARY_VALIDATION, Phase.REPORTING_LINE_VALIDATION),
+                validations.stream().map(ValidationMetrics::phase).toList());
+        assertEquals(1, validations.get(1).violations());
+    }
+
+    @Test
+    void testSubtreeStatsFollowChanges() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(DELTA_CSV));
+
+        assertEquals(new SubtreeStats(5, 350000, 50000, 120000), svc.getSubtreeStats("3").orElseThrow());
+        assertEquals(new SubtreeStats(3, 220000, 60000, 90000), svc.getSubtreeStats("2").orElseThrow());
+        assertEquals(new SubtreeStats(1, 50000, 50000, 50000), svc.getSubtreeStats("9").orElseThrow());
+        assertEquals(9, svc.getSubtreeStats("1").orElseThrow().headcount());
+        assertEquals(70000, svc.getSubtreeStats("3").orElseThrow().averageSalary());
+        assertTrue(svc.getSubtreeStats("42").isEmpty());
+
+        svc.changeManager("6", "2");
+        svc.changeSalary("9", 10000);
+        assertEquals(new SubtreeStats(7, 410000, 10000, 90000), svc.getSubtreeStats("2").orElseThrow());
+        assertEquals(new SubtreeStats(1, 120000, 120000, 120000), svc.getSubtreeStats("3").orElseThrow());
+
+        svc.terminate("7");
+        assertEquals(6, svc.getSubtreeStats("2").orElseThrow().headcount());
+    }
+
+    @Test
+    void testCachedViewsAndSecondaryIndexes() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(DELTA_CSV));
+
+        List<Employee> all = svc.getEmployees();
+        assertSame(all, svc.getEmployees(), "Read view should be cached between changes");
+        assertThrows(UnsupportedOperationException.class, () -> all.remove(0));
+
+        assertEquals(List.of("3", "2"), ids(svc.findByNamePrefix("MID T", 10)));
+        assertEquals(List.of("3"), ids(svc.findByNamePrefix("thr", 10)));
+        assertEquals(3, svc.findByNamePrefix("emp", 3).size());
+        assertTrue(svc.findByNamePrefix("zz", 10).isEmpty());
+
+        assertEquals(List.of("7", "8", "9", "4", "5"), ids(svc.findBySalaryRange(50000, 70000)));
+        assertTrue(svc.findBySalaryRange(130000, 200000).isEmpty());
+        assertEquals(List.of("1", "3"), ids(svc.getTopEarners(2)));
+        assertEquals(9, svc.getTopEarners(100).size());
+
+        assertEquals(List.of("1", "2"), ids(svc.getWidestSpans(2)));
+        assertEquals(List.of("1", "2"), ids(svc.getManagersWithSpanOfAtLeast(2)));
+        assertEquals(6, svc.getManagersWithSpanOfAtLeast(1).size());
+
+        Employee before = svc.getById("9").orElseThrow();
+        svc.changeSalary("9", 400000);
+        assertEquals(50000, before.getSalary(), "Employees handed out earlier must not change");
+        assertNotSame(all, svc.getEmployees());
+        assertEquals(400000, svc.getById("9").orElseThrow().getSalary());
+        assertEquals(List.of("9"), ids(svc.getTopEarners(1)));
+        List<Employee> raised = svc.getEmployees();
+
+        svc.hire(new Employee("10", "Nina", "New", 1000, "2"));
+        assertNotSame(raised, svc.getEmployees());
+        assertEquals(10, svc.getEmployees().size());
+        assertEquals(List.of("2"), ids(svc.getWidestSpans(1)));
+        assertEquals(List.of("10"), ids(svc.findByNamePrefix("nina", 10)));
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).toList();
+    }
+
+    @Test
+    void testAncestorQueries() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(DELTA_CSV));
+
+        assertEquals("8", svc.getKthManager("9", 1).orElseThrow().getId());
+        assertEquals("3", svc.getKthManager("9", 4).orElseThrow().getId());
+        assertEquals("1", svc.getKthManager("9", 5).orElseThrow().getId());
+        assertEquals("9", svc.getKthManager("9", 0).orElseThrow().getId());
+        assertTrue(svc.getKthManager("9", 6).isEmpty());
+        assertTrue(svc.getKthManager("42", 1).isEmpty());
+
+        assertEquals(List.of("8", "7", "6", "3", "1"),
+                svc.getChainOfCommand("9").stream().map(Employee::getId).toList());
+        assertTrue(svc.getChainOfCommand("1").isEmpty());
+
+        assertEquals("2", svc.getLowestCommonManager("4", "5").orElseThrow().getId());
+        assertEquals("1", svc.getLowestCommonManager("4", "9").orElseThrow().getId());
+        assertEquals("6", svc.getLowestCommonManager("9", "6").orElseThrow().getId());
+        assertEquals("9", svc.getLowestCommonManager("9", "9").orElseThrow().getId());
+        assertTrue(svc.getLowestCommonManager("9", "42").isEmpty());
+
+        assertTrue(svc.isInReportingLine("3", "9"));
+        assertTrue(svc.isInReportingLine("1", "4"));
+        assertFalse(svc.isInReportingLine("9", "3"));
+        assertFalse(svc.isInReportingLine("2", "9"));
+        assertFalse(svc.isInReportingLine("9", "9"));
+
+        svc.changeManager("6", "2");
+        assertEquals("2", svc.getLowestCommonManager("4", "9").orElseThrow().getId());
+        assertTrue(svc.isInReportingLine("2", "9"));
+        assertEquals("2", svc.getKthManager("9", 4).orElseThrow().getId());
+    }
+
+    @Test
+    void testSalaryDistributionsAndOutliers() throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(DELTA_CSV));
+
+        assertEquals(new SalaryDistribution(9, 50000, 50000, 70000, 90000, 300000, 300000, 300000),
+                svc.getSalaryDistribution("1").orElseThrow());
+        assertEquals(new SalaryDistribution(3, 60000, 60000, 70000, 90000, 90000, 90000, 90000),
+                svc.getSalaryDistribution("2").orElseThrow());
+        assertEquals(50000, svc.getSalaryDistribution("9").orElseThrow().median());
+        assertTrue(svc.getSalaryDistribution("42").isEmpty());
+        assertEquals(List.of("1"), svc.getSalaryOutliers("1").stream().map(Employee::getId).toList());
+        assertTrue(svc.getSalaryOutliers("2").isEmpty());
+
+        svc.changeSalary("9", 1000);
+        assertEquals(1000, svc.getSalaryDistribution("6").orElseThrow().min());
+    }
+
+    @Test
+    void testSalaryQuantilesStayWithinRankErrorOnLargeSubtrees() throws Exception {
+        int reports = 50_000;
+        Random random = new Random(7);
+        StringBuilder csv = new StringBuilder("Id,firstName,lastName,salary,managerId\n1,C,E,900000,\n2,M,G,100000,1\n");
+        double[] salaries = new double[reports + 1];
+        salaries[0] = 100000;
+        for (int i = 1; i <= reports; i++) {
+            salaries[i] = 20000 + random.nextInt(100_000);
+            csv.append(i + 2).append(",E,X,").append(salaries[i]).append(",2\n");
+        }
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(csv.toString()));
+        Arrays.sort(salaries);
+
+        SalaryDistribution d = svc.getSalaryDistribution("2").orElseThrow();
+        assertEquals(reports + 1, d.headcount());
+        assertEquals(salaries[0], d.min());
+        assertEquals(salaries[reports], d.max());
+        double[] qs = {0.25, 0.5, 0.75, 0.9, 0.99};
+        double[] estimates = {d.p25(), d.median(), d.p75(), d.p90(), d.p99()};
+        for (int i = 0; i < qs.length; i++) {
+            double rank = (double) rankOf(salaries, estimates[i]) / salaries.length;
+            assertEquals(qs[i], rank, 0.01, "rank error for q=" + qs[i]);
+        }
+    }
+
+    /** Rank of {@code v} in {@code sorted}; ties take the middle of their run. */
+    private static int rankOf(double[] sorted, double v) {
+        int lo = 0;
+        while (lo < sorted.length && sorted[lo] < v) lo++;
+        int hi = lo;
+        while (hi < sorted.length && sorted[hi] == v) hi++;
+        return (lo + hi) / 2;
+    }
 }
@@ -0,0 +1,89 @@
+package com.company.service;
+
+import com.company.model.Employee;
+import com.company.model.HierarchyDiff;
+import com.company.model.Violation;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchyDifferTest {
+
+    private static final String BEFORE = """
+        Id,firstName,lastName,salary,managerId
+        1,CEO,One,300000,
+        2,Mid,Two,100000,1
+        3,Mid,Three,100000,1
+        4,Emp,Four,60000,2
+        5,Emp,Five,70000,2
+        6,Emp,Six,80000,3
+        7,Emp,Seven,50000,6
+        """;
+
+    private static final String AFTER = """
+        Id,firstName,lastName,salary,managerId
+        1,CEO,One,300000,
+        3,Mid,Three,100000,1
+        8,New,Eight,40000,3
+        2,Mid,Two,100000,1
+        6,Emp,Six,80000,2
+        7,Emp,Seven,50000,6
+        4,Emp,Four,85000,2
+        """;
+
+    @Test
+    void testReportsEveryKindOfChange() throws Exception {
+        HierarchyDiff diff = HierarchyDiffer.diff(load(BEFORE), load(AFTER), 1);
+
+        assertEquals(List.of("8"), diff.hires().stream().map(Employee::getId).toList());
+        assertEquals(List.of("5"), diff.leavers().stream().map(Employee::getId).toList());
+        assertEquals(List.of(new HierarchyDiff.SalaryChange("4", 60000, 85000)), diff.salaryChanges());
+        assertEquals(List.of(new HierarchyDiff.ManagerMove("6", "3", "2")), diff.moves());
+        assertEquals(List.of("3"), diff.newViolations().stream().map(Violation::employeeId).toList());
+        assertEquals(Violation.Kind.OVERPAID, diff.newViolations().get(0).kind());
+        assertEquals(List.of("2"), diff.resolvedViolations().stream().map(Violation::employeeId).toList());
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    void testReorderedIdenticalFilesHaveNoDiff() throws Exception {
+        String reordered = """
+            Id,firstName,lastName,salary,managerId
+            7,Emp,Seven,50000,6
+            6,Emp,Six,80000,3
+            5,Emp,Five,70000,2
+            4,Emp,Four,60000,2
+            3,Mid,Three,100000,1
+            2,Mid,Two,100000,1
+            1,CEO,One,300000,
+            """;
+        assertTrue(HierarchyDiffer.diff(load(BEFORE), load(reordered), 1).isEmpty());
+
+        ColumnarEmployeeService columnar = new ColumnarEmployeeService();
+        columnar.loadFromFile(new StringReader(BEFORE));
+        assertTrue(HierarchyDiffer.diff(columnar, load(reordered), 1).isEmpty());
+    }
+
+    @Test
+    void testEmptySideMakesEveryoneAHireOrLeaver() throws Exception {
+        HierarchyDiff joined = HierarchyDiffer.diff(new EmployeeServiceImpl(), load(BEFORE), 1);
+        assertEquals(List.of("1", "2", "4", "5", "3", "6", "7"), joined.hires().stream().map(Employee::getId).toList());
+        assertTrue(joined.leavers().isEmpty());
+
+        HierarchyDiff left = HierarchyDiffer.diff(load(BEFORE), new ColumnarEmployeeService(), 1);
+        assertEquals(7, left.leavers().size());
+        assertTrue(left.hires().isEmpty());
+        assertTrue(left.newViolations().isEmpty());
+
+        assertTrue(HierarchyDiffer.diff(new EmployeeServiceImpl(), new EmployeeServiceImpl(), 1).isEmpty());
+    }
+
+    private static EmployeeServiceImpl load(String csv) throws Exception {
+        EmployeeServiceImpl svc = new EmployeeServiceImpl();
+        svc.loadFromFile(new StringReader(csv));
+        return svc;
+    }
+}
@@ -0,0 +1,80 @@
+package com.company.tools;
+
+import com.company.exceptions.ValidationException;
+import com.company.model.Employee;
+import com.company.service.EmployeeServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrgGeneratorTest {
+
+    private static String generate(String... args) throws Exception {
+        StringWriter out = new StringWriter();
+        new OrgGenerator(OrgGenerator.Options.parse(args)).generate(out);
+        return out.toString();
+    }
+
+    @Test
+    void testGeneratedOrgLoadsWithinDepthAndIsReproducible() throws Exception {
+        String[] args = {"--rows", "5000", "--fan-out", "uniform:1:4", "--max-depth", "6",
+                "--violation-rate", "0", "--shuffle", "--bucket-rows", "700", "--seed", "7"};
+        String csv = generate(args);
+        assertEquals(csv, generate(args));
+        assertTrue(csv.startsWith(OrgGenerator.HEADER + "\n"));
+
+        EmployeeServiceImpl service = new EmployeeServiceImpl();
+        service.loadFromFile(new StringReader(csv));
+        assertEquals(5000, service.getEmployees().size());
+        for (Employee e : service.getEmployees()) {
+            assertTrue(service.countManagersBetween(e) <= 5, e.getId());
+        }
+        assertTrue(service.findSalaryViolations().isEmpty());
+    }
+
+    @Test
+    void testInjectedErrorsAreCountedAndRejected() throws Exception {
+        StringWriter out = new StringWriter();
+        OrgGenerator.Result result = new OrgGenerator(OrgGenerator.Options.parse(
+                "--rows", "2000", "--error-rate", "0.01", "--seed", "3")).generate(out);
+
+        long injected = result.injected().values().stream().mapToLong(Long::longValue).sum();
+        assertEquals(2000, result.employees());
+        assertTrue(injected > 0);
+        assertThrows(ValidationException.class,
+                () -> new EmployeeServiceImpl().loadFromFile(new StringReader(out.toString())));
+    }
+
+    @Test
+    void testCliShufflesInTmpDirAndReportsFailures(@TempDir Path dir) throws Exception {
+        Path tmp = Files.createDirectory(dir.resolve("tmp"));
+        Path out = dir.resolve("org.csv");
+        PrintStream stdout = new PrintStream(new ByteArrayOutputStream());
+
+        assertEquals(0, OrgGenerator.cli(new String[]{"--rows", "300", "--shuffle", "--bucket-rows", "50",
+                "--tmp-dir", tmp.toString(), "--out", out.toString()}, stdout));
+        assertEquals(301, Files.readAllLines(out).size());
+        try (var left = Files.list(tmp)) {
+            assertEquals(0, left.count());
+        }
+
+        assertEquals(1, OrgGenerator.cli(new String[]{"--rows", "300", "--shuffle",
+                "--tmp-dir", dir.resolve("missing").toString(), "--out", out.toString()}, stdout));
+        assertEquals(2, OrgGenerator.cli(new String[]{"--rows", "300"}, stdout));
+    }
+
+    @Test
+    void testRejectsBadOptions() {
+        assertThrows(IllegalArgumentException.class, () -> OrgGenerator.Options.parse("--fan-out", "zipf:2"));
+        assertThrows(IllegalArgumentException.class, () -> OrgGenerator.Options.parse("--rows", "0"));
+        assertThrows(IllegalArgumentException.class, () -> OrgGenerator.Options.parse("--seed"));
+    }
+}